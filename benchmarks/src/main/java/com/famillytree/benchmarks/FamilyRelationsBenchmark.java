@@ -0,0 +1,47 @@
+package com.famillytree.benchmarks;
+
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.graph.FamilyGraph;
+import com.famillytree.node.model.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Parcours de NodeService sur le graphe résident (getAllFamilyRelations, getCousinRelations)
+// et sur les dépôts (getSiblings), plus le chargement d'un graphe froid
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FamilyRelationsBenchmark {
+
+    @Benchmark
+    public Set<NodeRelationDTO> getAllFamilyRelations(TreeState state) {
+        return state.nodeService.getAllFamilyRelations(state.focus);
+    }
+
+    @Benchmark
+    public Set<NodeRelationDTO> getCousinRelations(TreeState state) {
+        return state.nodeService.getCousinRelations(state.focus);
+    }
+
+    @Benchmark
+    public List<Node> getSiblings(TreeState state) {
+        return state.nodeService.getSiblings(state.focus);
+    }
+
+    // Registre vide à chaque appel : composante lue dans les dépôts puis construite en mémoire
+    @Benchmark
+    public FamilyGraph loadGraph(TreeState state) {
+        return state.tree.familyGraphRegistry().getGraph(state.focus.getId());
+    }
+}
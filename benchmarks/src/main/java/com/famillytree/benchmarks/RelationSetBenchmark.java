@@ -0,0 +1,51 @@
+package com.famillytree.benchmarks;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.model.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Coûts élémentaires des réponses : hachage des NodeRelationDTO (equals/hashCode générés, intérêts compris)
+// dans les HashSet de relations, et copie des entités en DTO (convertToDTO)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RelationSetBenchmark {
+
+    @Benchmark
+    public Set<NodeRelationDTO> buildRelationSet(TreeState state) {
+        return new HashSet<>(state.relationList);
+    }
+
+    @Benchmark
+    public void hashRelations(TreeState state, Blackhole blackhole) {
+        for (NodeRelationDTO relation : state.relationList) {
+            blackhole.consume(relation.hashCode());
+        }
+    }
+
+    @Benchmark
+    public List<NodeDTO> convertToDTO(TreeState state) {
+        List<Node> nodes = state.tree.getNodes();
+        List<NodeDTO> dtos = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            dtos.add(state.nodeService.convertToDTO(node));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,54 @@
+package com.famillytree.benchmarks;
+
+import com.famillytree.node.dto.FamilyGraphResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Sérialisation de la réponse de GET /api/nodes dans chacun des formats servis
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    // Même configuration que les mappers de l'application (Jackson2ObjectMapperBuilder de Spring Boot)
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .factory(new CBORFactory())
+            .build();
+
+    @Benchmark
+    public byte[] relationsJson(TreeState state) throws JsonProcessingException {
+        return json.writeValueAsBytes(state.familyRelations);
+    }
+
+    @Benchmark
+    public byte[] relationsCbor(TreeState state) throws JsonProcessingException {
+        return cbor.writeValueAsBytes(state.familyRelations);
+    }
+
+    // Format compact : conversion comprise, comme dans le cache des relations
+    @Benchmark
+    public byte[] compactJson(TreeState state) throws JsonProcessingException {
+        return json.writeValueAsBytes(FamilyGraphResponse.from(state.familyRelations));
+    }
+}
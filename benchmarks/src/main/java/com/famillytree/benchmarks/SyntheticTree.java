@@ -0,0 +1,190 @@
+package com.famillytree.benchmarks;
+
+import com.famillytree.config.QueryCounter;
+import com.famillytree.node.graph.FamilyGraphRegistry;
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.model.NodeRelation;
+import com.famillytree.node.repository.NodeRelationRepository;
+import com.famillytree.node.repository.NodeRepository;
+import com.famillytree.node.service.NodeMetrics;
+import com.famillytree.node.service.NodeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Getter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Arbre synthétique : un couple fondateur, puis "branching" enfants par couple sur "depth" générations.
+// Chaque enfant, sauf à la dernière génération, a un conjoint venu de l'extérieur de l'arbre.
+// Les dépôts sont remplacés par des versions en mémoire qui répondent aux requêtes utilisées par les parcours.
+@Getter
+public class SyntheticTree {
+
+    private static final long USER_ID = 1L;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<NodeRelation> relations = new ArrayList<>();
+    private final Map<Long, Node> nodesById = new HashMap<>();
+    // Index des relations par extrémité : le coût des dépôts en mémoire reste négligeable devant celui des parcours
+    private final Map<Long, List<NodeRelation>> relationsByNode1 = new HashMap<>();
+    private final Map<Long, List<NodeRelation>> relationsByNode2 = new HashMap<>();
+    // Nœud de la dernière génération : ascendants, oncles et tantes, cousins et frères et sœurs complets
+    private final Node focus;
+
+    public SyntheticTree(int depth, int branching, int interests) {
+        Node founder = addNode(0, Gender.MALE, interests);
+        Node founderSpouse = addNode(0, Gender.FEMALE, interests);
+        addRelation(founder, founderSpouse, NodeRelation.RelationType.SPOUSE);
+
+        List<Node[]> couples = new ArrayList<>();
+        couples.add(new Node[]{founder, founderSpouse});
+        List<Node> lastGeneration = new ArrayList<>();
+        for (int generation = 1; generation <= depth; generation++) {
+            List<Node[]> nextCouples = new ArrayList<>();
+            lastGeneration = new ArrayList<>();
+            for (Node[] couple : couples) {
+                for (int i = 0; i < branching; i++) {
+                    Node child = addNode(generation, i % 2 == 0 ? Gender.MALE : Gender.FEMALE, interests);
+                    addRelation(couple[0], child, NodeRelation.RelationType.CHILD);
+                    addRelation(couple[1], child, NodeRelation.RelationType.CHILD);
+                    lastGeneration.add(child);
+                    if (generation < depth) {
+                        Node spouse = addNode(generation, i % 2 == 0 ? Gender.FEMALE : Gender.MALE, interests);
+                        addRelation(child, spouse, NodeRelation.RelationType.SPOUSE);
+                        nextCouples.add(new Node[]{child, spouse});
+                    }
+                }
+            }
+            couples = nextCouples;
+        }
+        focus = lastGeneration.isEmpty() ? founder : lastGeneration.get(lastGeneration.size() / 2);
+    }
+
+    // Service réel branché sur les dépôts en mémoire ; le cache, la table de fermeture et les événements ne sont pas utilisés
+    public NodeService nodeService() {
+        return nodeService(familyGraphRegistry());
+    }
+
+    public NodeService nodeService(FamilyGraphRegistry registry) {
+        return new NodeService(nodeRepository(), nodeRelationRepository(), registry, null, null, null,
+                new QueryCounter(), new NodeMetrics(new SimpleMeterRegistry()));
+    }
+
+    public FamilyGraphRegistry familyGraphRegistry() {
+        FamilyGraphRegistry registry = new FamilyGraphRegistry(nodeRepository(), nodeRelationRepository());
+        // Valeur injectée par Spring dans l'application : l'arbre entier doit rester résident
+        setField(registry, "maxResidentNodes", Integer.MAX_VALUE);
+        return registry;
+    }
+
+    public NodeRepository nodeRepository() {
+        return stub(NodeRepository.class, (method, args) -> switch (method) {
+            case "findAllWithInterestsByIdIn" -> ((Collection<?>) args[0]).stream()
+                    .map(nodesById::get)
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    public NodeRelationRepository nodeRelationRepository() {
+        return stub(NodeRelationRepository.class, (method, args) -> switch (method) {
+            case "findComponentRelations" -> relations.stream()
+                    .map(relation -> (NodeRelationRepository.RelationRow) new Row(relation))
+                    .toList();
+            case "findWithNode2InterestsByNode1IdInAndRelation" -> find(relationsByNode1, args);
+            case "findWithNode1InterestsByNode2IdInAndRelation" -> find(relationsByNode2, args);
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private List<NodeRelation> find(Map<Long, List<NodeRelation>> index, Object[] args) {
+        return ((Collection<?>) args[0]).stream()
+                .flatMap(nodeId -> index.getOrDefault(nodeId, List.of()).stream())
+                .filter(relation -> relation.getRelation() == args[1])
+                .toList();
+    }
+
+    private Node addNode(int generation, Gender gender, int interests) {
+        long id = nodes.size() + 1L;
+        List<String> interestList = new ArrayList<>(interests);
+        for (int i = 0; i < interests; i++) {
+            interestList.add("interest-" + ((id + i) % 50));
+        }
+        Node node = Node.builder()
+                .id(id)
+                .firstName("First" + id)
+                .lastName("Last" + generation)
+                .birthDate(LocalDate.of(1900 + generation * 25, 1 + (int) (id % 12), 1 + (int) (id % 28)))
+                .gender(gender)
+                .address(id + " rue de la Généalogie")
+                .phone("+33 6 00 00 " + String.format("%02d %02d", id / 100 % 100, id % 100))
+                .interests(interestList)
+                .userId(USER_ID)
+                .baseNode(id == 1L)
+                .build();
+        nodes.add(node);
+        nodesById.put(id, node);
+        return node;
+    }
+
+    private void addRelation(Node node1, Node node2, NodeRelation.RelationType relationType) {
+        NodeRelation relation = NodeRelation.builder()
+                .id(relations.size() + 1L)
+                .node1(node1)
+                .node2(node2)
+                .relation(relationType)
+                .build();
+        relations.add(relation);
+        relationsByNode1.computeIfAbsent(node1.getId(), id -> new ArrayList<>()).add(relation);
+        relationsByNode2.computeIfAbsent(node2.getId(), id -> new ArrayList<>()).add(relation);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Query query) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + " (in memory)";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> query.run(method.getName(), args);
+                });
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Query {
+        Object run(String method, Object[] args);
+    }
+
+    private record Row(NodeRelation relation) implements NodeRelationRepository.RelationRow {
+        @Override
+        public Long getNode1Id() {
+            return relation.getNode1().getId();
+        }
+
+        @Override
+        public Long getNode2Id() {
+            return relation.getNode2().getId();
+        }
+
+        @Override
+        public String getRelation() {
+            return relation.getRelation().name();
+        }
+    }
+}
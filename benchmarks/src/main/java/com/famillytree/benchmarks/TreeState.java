@@ -0,0 +1,46 @@
+package com.famillytree.benchmarks;
+
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.service.NodeService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Arbre synthétique partagé par les benchmarks, construit une fois par combinaison de paramètres.
+// Les valeurs se remplacent en ligne de commande : -p depth=10 -p branching=2 -p interests=20
+@State(Scope.Benchmark)
+public class TreeState {
+
+    @Param({"4", "8"})
+    public int depth;
+
+    @Param({"2", "3"})
+    public int branching;
+
+    @Param({"0", "10"})
+    public int interests;
+
+    public SyntheticTree tree;
+    public NodeService nodeService;
+    public Node focus;
+    // Réponse de GET /api/nodes pour le nœud observé, et les mêmes relations en liste (sans déduplication)
+    public Set<NodeRelationDTO> familyRelations;
+    public List<NodeRelationDTO> relationList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = new SyntheticTree(depth, branching, interests);
+        nodeService = tree.nodeService();
+        focus = tree.getFocus();
+        // Premier appel : chargement du graphe, résident ensuite comme dans l'application
+        familyRelations = nodeService.getAllFamilyRelations(focus);
+        relationList = new ArrayList<>(familyRelations);
+    }
+}
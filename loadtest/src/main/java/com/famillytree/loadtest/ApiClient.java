@@ -0,0 +1,161 @@
+package com.famillytree.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// Appels HTTP de l'API, chronométrés par endpoint dans les statistiques de la phase en cours.
+// Une réponse hors 2xx/304, un délai dépassé ou une connexion refusée comptent comme erreur.
+public class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private volatile LatencyStats stats;
+
+    public ApiClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public void setStats(LatencyStats stats) {
+        this.stats = stats;
+    }
+
+    // AuthController
+
+    public JsonNode register(String username, String password) {
+        return send("POST /api/auth/register", post("/api/auth/register", null,
+                Map.of("username", username, "email", username + "@loadtest.local", "password", password)));
+    }
+
+    public JsonNode login(String username, String password) {
+        return send("POST /api/auth/login", post("/api/auth/login", null,
+                Map.of("username", username, "password", password)));
+    }
+
+    // NodeController
+
+    public JsonNode createNode(String token, Map<String, Object> node) {
+        return send("POST /api/nodes", post("/api/nodes", token, node));
+    }
+
+    public JsonNode importTree(String token, Map<String, Object> tree) {
+        return send("POST /api/nodes/import", post("/api/nodes/import", token, tree));
+    }
+
+    public JsonNode getFamilyRelations(String token) {
+        return send("GET /api/nodes", get("/api/nodes", token));
+    }
+
+    public JsonNode getNode(String token, long nodeId) {
+        return send("GET /api/nodes/{id}", get("/api/nodes/" + nodeId, token));
+    }
+
+    public JsonNode getKinship(String token, long nodeId, long otherId) {
+        return send("GET /api/nodes/{id}/kinship/{otherId}", get("/api/nodes/" + nodeId + "/kinship/" + otherId, token));
+    }
+
+    // InvitationController
+
+    public JsonNode createInvitation(String token, long nodeId) {
+        return send("POST /api/invitations", post("/api/invitations", token, Map.of("nodeId", nodeId)));
+    }
+
+    public JsonNode useInvitation(String token, String invitationCode) {
+        return send("PUT /api/invitations/{invitationKey}/use", request("/api/invitations/" + invitationCode + "/use", token)
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build());
+    }
+
+    // L'application répond (quel que soit le statut) : elle est démarrée
+    public boolean isUp() {
+        try {
+            httpClient.send(request("/actuator/health", null).GET().build(), HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - start, false);
+            throw new ApiException(endpoint, 0, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(endpoint, 0, "interrupted");
+        }
+        int status = response.statusCode();
+        boolean success = (status >= 200 && status < 300) || status == 304;
+        stats.record(endpoint, System.nanoTime() - start, success);
+        if (!success) {
+            throw new ApiException(endpoint, status, new String(response.body()));
+        }
+        try {
+            return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+        } catch (IOException e) {
+            throw new ApiException(endpoint, status, "Unreadable response: " + e.getMessage());
+        }
+    }
+
+    public static class ApiException extends RuntimeException {
+
+        private final int status;
+
+        public ApiException(String endpoint, int status, String message) {
+            super(endpoint + " -> " + (status > 0 ? status + " " : "") + message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.famillytree.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Application lancée par le test, avec le même JDK, contre la base PostgreSQL indiquée.
+// La sortie est écrite dans target/app-<mode>.log ; les logs SQL sont coupés pour ne pas fausser les mesures.
+public class AppProcess implements AutoCloseable {
+
+    private final Process process;
+
+    private AppProcess(Process process) {
+        this.process = process;
+    }
+
+    public static AppProcess start(LoadTestConfig config, String threadMode, ApiClient client)
+            throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        int port = config.baseUrl().getPort() > 0 ? config.baseUrl().getPort() : 8080;
+        Path log = Files.createDirectories(Path.of("target")).resolve("app-" + threadMode + ".log");
+        ProcessBuilder builder = new ProcessBuilder(java, "-jar", config.appJar())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        Map<String, String> env = builder.environment();
+        env.put("SERVER_PORT", String.valueOf(port));
+        env.put("DB_URL", config.dbUrl());
+        env.put("DB_USERNAME", config.dbUsername());
+        env.put("DB_PASSWORD", config.dbPassword());
+        env.put("VIRTUAL_THREADS_ENABLED", String.valueOf(threadMode.equals("virtual")));
+        env.put("SPRING_JPA_SHOW_SQL", "false");
+
+        System.out.printf("Starting %s with %s threads on port %d...%n", config.appJar(), threadMode, port);
+        AppProcess app = new AppProcess(builder.start());
+        long deadline = System.nanoTime() + config.appStartupTimeout().toNanos();
+        while (!client.isUp()) {
+            if (!app.process.isAlive()) {
+                throw new IllegalStateException("The application exited with code " + app.process.exitValue()
+                        + ", see " + log);
+            }
+            if (System.nanoTime() > deadline) {
+                app.close();
+                throw new IllegalStateException("The application did not start within " + config.appStartupTimeout());
+            }
+            Thread.sleep(Duration.ofMillis(500));
+        }
+        return app;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.famillytree.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Familles synthétiques au format de POST /api/nodes/import.
+// Autour du nœud de base : "generations" générations d'ascendants (chaque couple avec des frères et sœurs
+// et leurs enfants, donc oncles, tantes et cousins) et "generations" générations de descendants.
+// Le nombre d'enfants d'un couple est tiré entre 0 et 2 × fan-out, un conjoint est ajouté avec la probabilité spouse-rate.
+public class FamilyGenerator {
+
+    public static final String BASE_REF = "base";
+
+    private static final String[] MALE_NAMES = {"Jean", "Paul", "Luc", "Marc", "Pierre", "André", "Louis", "Hugo", "Noah", "Samuel"};
+    private static final String[] FEMALE_NAMES = {"Marie", "Anne", "Claire", "Julie", "Sophie", "Emma", "Léa", "Chloé", "Alice", "Rose"};
+    private static final String[] LAST_NAMES = {"Talla", "Kenfack", "Nguema", "Martin", "Bernard", "Dubois", "Fotso", "Mbarga", "Laurent", "Simon"};
+    private static final String[] INTERESTS = {"music", "football", "cooking", "reading", "travel", "history", "genealogy",
+            "photography", "gardening", "cinema", "chess", "painting"};
+    private static final int GENERATION_YEARS = 28;
+
+    private final LoadTestConfig config;
+
+    public FamilyGenerator(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public Map<String, Object> generate(long seed) {
+        return new Family(new Random(seed)).build();
+    }
+
+    // Nœud seul, pour POST /api/nodes
+    public Map<String, Object> person(Random random, int birthYear, Long relatedNodeId, String relationType) {
+        boolean male = random.nextBoolean();
+        Map<String, Object> node = node(random, male, LAST_NAMES[random.nextInt(LAST_NAMES.length)], birthYear);
+        if (relatedNodeId != null) {
+            node.put("relatedNodeId", relatedNodeId);
+            node.put("relationType", relationType);
+        }
+        return node;
+    }
+
+    private Map<String, Object> node(Random random, boolean male, String lastName, int birthYear) {
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("firstName", (male ? MALE_NAMES : FEMALE_NAMES)[random.nextInt(MALE_NAMES.length)]);
+        node.put("lastName", lastName);
+        LocalDate birthDate = LocalDate.of(birthYear, 1 + random.nextInt(12), 1 + random.nextInt(28));
+        // Les dates de naissance doivent être passées
+        LocalDate latest = LocalDate.now().minusDays(1);
+        node.put("birthDate", (birthDate.isAfter(latest) ? latest : birthDate).toString());
+        node.put("gender", male ? "MALE" : "FEMALE");
+        node.put("phone", String.format("+336%08d", random.nextInt(100_000_000)));
+        List<String> interests = new ArrayList<>();
+        for (int i = 0; i < config.interests(); i++) {
+            interests.add(INTERESTS[random.nextInt(INTERESTS.length)]);
+        }
+        node.put("interests", interests);
+        return node;
+    }
+
+    private class Family {
+
+        private final Random random;
+        private final List<Map<String, Object>> nodes = new ArrayList<>();
+        private final List<Map<String, Object>> relations = new ArrayList<>();
+
+        Family(Random random) {
+            this.random = random;
+        }
+
+        Map<String, Object> build() {
+            int baseYear = LocalDate.now().getYear() - 30 - random.nextInt(20);
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            boolean male = random.nextBoolean();
+            Map<String, Object> base = node(random, male, lastName, baseYear);
+            base.put("ref", BASE_REF);
+            base.put("baseNode", true);
+            nodes.add(base);
+
+            addDescendants(BASE_REF, male, baseYear, config.generations());
+            addAncestors(BASE_REF, lastName, baseYear, 1);
+
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("nodes", nodes);
+            request.put("relations", relations);
+            return request;
+        }
+
+        private void addAncestors(String childRef, String lastName, int childYear, int level) {
+            if (level > config.generations() || full(3)) {
+                return;
+            }
+            int year = childYear - GENERATION_YEARS - random.nextInt(5);
+            String father = add(true, lastName, year);
+            String motherName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String mother = add(false, motherName, year + random.nextInt(4));
+            relate(father, mother, "SPOUSE");
+            relate(father, childRef, "CHILD");
+            relate(mother, childRef, "CHILD");
+
+            // Frères et sœurs de l'enfant, avec une génération d'enfants : oncles, tantes et cousins
+            int siblings = Math.max(0, childrenCount() - 1);
+            for (int i = 0; i < siblings && !full(1); i++) {
+                boolean male = random.nextBoolean();
+                int siblingYear = childYear + random.nextInt(9) - 4;
+                String sibling = add(male, lastName, siblingYear);
+                relate(father, sibling, "CHILD");
+                relate(mother, sibling, "CHILD");
+                addDescendants(sibling, male, siblingYear, 1);
+            }
+
+            addAncestors(father, lastName, year, level + 1);
+            addAncestors(mother, motherName, year, level + 1);
+        }
+
+        private void addDescendants(String parentRef, boolean parentMale, int parentYear, int depth) {
+            if (depth == 0 || full(1)) {
+                return;
+            }
+            String spouse = null;
+            if (random.nextDouble() < config.spouseRate()) {
+                spouse = add(!parentMale, LAST_NAMES[random.nextInt(LAST_NAMES.length)], parentYear + random.nextInt(7) - 3);
+                relate(parentRef, spouse, "SPOUSE");
+            }
+            int children = childrenCount();
+            for (int i = 0; i < children && !full(1); i++) {
+                boolean male = random.nextBoolean();
+                int year = parentYear + GENERATION_YEARS + random.nextInt(8) - 4;
+                String child = add(male, LAST_NAMES[random.nextInt(LAST_NAMES.length)], year);
+                relate(parentRef, child, "CHILD");
+                if (spouse != null) {
+                    relate(spouse, child, "CHILD");
+                }
+                addDescendants(child, male, year, depth - 1);
+            }
+        }
+
+        private int childrenCount() {
+            return random.nextInt(2 * config.fanOut() + 1);
+        }
+
+        private boolean full(int needed) {
+            return nodes.size() + needed > config.maxNodesPerTree();
+        }
+
+        private String add(boolean male, String lastName, int birthYear) {
+            String ref = "n" + nodes.size();
+            Map<String, Object> node = node(random, male, lastName, birthYear);
+            node.put("ref", ref);
+            nodes.add(node);
+            return ref;
+        }
+
+        private void relate(String node1Ref, String node2Ref, String relationType) {
+            Map<String, Object> relation = new LinkedHashMap<>();
+            relation.put("node1Ref", node1Ref);
+            relation.put("node2Ref", node2Ref);
+            relation.put("relationType", relationType);
+            relations.add(relation);
+        }
+    }
+}
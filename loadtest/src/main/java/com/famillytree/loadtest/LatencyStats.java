@@ -0,0 +1,113 @@
+package com.famillytree.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latences d'une phase (préparation ou palier), par endpoint, en microsecondes
+public class LatencyStats {
+
+    private final String name;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public LatencyStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.recorder.recordValue(Math.max(1, nanos / 1000));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    public Summary summarize() {
+        Map<String, Snapshot> snapshots = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) ->
+                snapshots.put(endpoint, new Snapshot(stats.recorder.getIntervalHistogram(), stats.errors.sum())));
+        return new Summary(name, snapshots);
+    }
+
+    private static class Endpoint {
+        private final Recorder recorder = new Recorder(3);
+        private final LongAdder errors = new LongAdder();
+    }
+
+    public record Snapshot(Histogram histogram, long errors) {
+
+        public long count() {
+            return histogram.getTotalCount();
+        }
+
+        public double millis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public double maxMillis() {
+            return histogram.getMaxValue() / 1000.0;
+        }
+    }
+
+    public record Summary(String name, Map<String, Snapshot> endpoints) {
+
+        public long count() {
+            return endpoints.values().stream().mapToLong(Snapshot::count).sum();
+        }
+
+        public long errors() {
+            return endpoints.values().stream().mapToLong(Snapshot::errors).sum();
+        }
+
+        public double errorRate() {
+            return count() == 0 ? 0 : (double) errors() / count();
+        }
+
+        // Endpoints dont le 99e centile dépasse l'objectif
+        public List<String> slowEndpoints(Duration p99Slo) {
+            return endpoints.entrySet().stream()
+                    .filter(entry -> entry.getValue().millis(99) > p99Slo.toMillis())
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        public void print(PrintStream out) {
+            out.printf("%-42s %8s %7s %9s %9s %9s %9s %9s%n",
+                    "Endpoint", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            endpoints.forEach((endpoint, snapshot) -> out.printf("%-42s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint, snapshot.count(), snapshot.errors(), snapshot.millis(50), snapshot.millis(90),
+                    snapshot.millis(99), snapshot.millis(99.9), snapshot.maxMillis()));
+        }
+
+        public void appendCsv(Path file, String threadMode, int targetRps) throws IOException {
+            StringBuilder csv = new StringBuilder();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            if (!Files.exists(file)) {
+                csv.append("thread_mode,phase,target_rps,endpoint,count,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+            }
+            endpoints.forEach((endpoint, snapshot) -> csv.append(String.format(Locale.ROOT,
+                    "%s,%s,%d,\"%s\",%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n", threadMode, name, targetRps, endpoint,
+                    snapshot.count(), snapshot.errors(), snapshot.millis(50), snapshot.millis(90), snapshot.millis(99),
+                    snapshot.millis(99.9), snapshot.maxMillis())));
+            Files.writeString(file, csv, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.famillytree.loadtest;
+
+import com.famillytree.loadtest.LoadTestConfig.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Une exécution contre une instance de l'application : création des familles, puis paliers de débit
+// en boucle ouverte (les requêtes partent à l'heure prévue, même si les précédentes n'ont pas répondu).
+// Un palier échoue si le taux d'erreur ou le 99e centile d'un endpoint dépasse son seuil,
+// ou si le client n'a pas pu tenir le débit cible : les paliers suivants ne sont pas joués.
+public class LoadRun {
+
+    private static final String PASSWORD = "LoadTest-2024!";
+    private static final int SETUP_CONCURRENCY = 16;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final String threadMode;
+    private final ApiClient client;
+    private final FamilyGenerator generator;
+    private final PrintStream out;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger userCounter = new AtomicInteger();
+
+    private final List<User> users = new CopyOnWriteArrayList<>();
+    // Utilisateurs inscrits avec leur seul nœud de base : ils peuvent accepter une invitation
+    private final ConcurrentLinkedQueue<User> invitees = new ConcurrentLinkedQueue<>();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    public LoadRun(LoadTestConfig config, String threadMode, ApiClient client, PrintStream out) {
+        this.config = config;
+        this.threadMode = threadMode;
+        this.client = client;
+        this.generator = new FamilyGenerator(config);
+        this.out = out;
+    }
+
+    // Débit du dernier palier tenu (0 si aucun) et cause de l'arrêt
+    public record Result(String threadMode, int sustainedRps, String stopReason) {
+    }
+
+    public Result run() throws IOException, InterruptedException {
+        setUp();
+
+        int sustained = 0;
+        String stopReason = "all stages passed";
+        for (int targetRps : config.stages()) {
+            String reason = runStage(targetRps);
+            if (reason != null) {
+                stopReason = "saturated at " + targetRps + " req/s: " + reason;
+                break;
+            }
+            sustained = targetRps;
+        }
+        return new Result(threadMode, sustained, stopReason);
+    }
+
+    private void setUp() throws IOException, InterruptedException {
+        LatencyStats stats = new LatencyStats("setup");
+        client.setStats(stats);
+        out.printf("%n[%s] Creating %d users and their family trees...%n", threadMode, config.users());
+
+        Semaphore permits = new Semaphore(SETUP_CONCURRENCY);
+        AtomicLong nodes = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.users(); i++) {
+                long seed = config.seed() + i;
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        User user = register();
+                        JsonNode imported = client.importTree(user.token, generator.generate(seed));
+                        imported.get("nodeIds").fields().forEachRemaining(entry -> {
+                            long nodeId = entry.getValue().asLong();
+                            user.familyNodeIds.add(nodeId);
+                            if (entry.getKey().equals(FamilyGenerator.BASE_REF)) {
+                                user.baseNodeId = nodeId;
+                            } else {
+                                user.ownedNodeIds.add(nodeId);
+                            }
+                        });
+                        nodes.addAndGet(user.familyNodeIds.size());
+                        users.add(user);
+                    } catch (ApiClient.ApiException e) {
+                        fail(e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        LatencyStats.Summary summary = stats.summarize();
+        out.printf("[%s] %d users, %d nodes%n", threadMode, users.size(), nodes.get());
+        summary.print(out);
+        summary.appendCsv(Path.of(config.report()), threadMode, 0);
+        printFailures();
+        if (users.isEmpty()) {
+            throw new IllegalStateException("No user could be created: check that the application is reachable");
+        }
+    }
+
+    // Retourne la cause de l'échec du palier, ou null s'il est tenu
+    private String runStage(int targetRps) throws IOException, InterruptedException {
+        LatencyStats stats = new LatencyStats("stage-" + targetRps);
+        client.setStats(stats);
+        Operation[] operations = weightedOperations();
+        long period = TimeUnit.SECONDS.toNanos(1) / targetRps;
+        long duration = config.stageDuration().toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder completed = new LongAdder();
+        long dropped = 0;
+
+        out.printf("%n[%s] Stage %d req/s for %s...%n", threadMode, targetRps, config.stageDuration());
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduledAt = start + i * period;
+                if (scheduledAt - start >= duration) {
+                    break;
+                }
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= config.maxInFlight()) {
+                    // Le serveur ne répond plus assez vite : la requête n'est pas envoyée
+                    dropped++;
+                    continue;
+                }
+                Operation operation = operations[ThreadLocalRandom.current().nextInt(operations.length)];
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        execute(operation);
+                    } catch (ApiClient.ApiException e) {
+                        fail(e);
+                    } finally {
+                        inFlight.decrementAndGet();
+                        completed.increment();
+                    }
+                });
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        LatencyStats.Summary summary = stats.summarize();
+        double achieved = completed.sum() / elapsed;
+        out.printf("[%s] target %d req/s, achieved %.1f op/s, %d requests, error rate %.2f%%, dropped %d%n",
+                threadMode, targetRps, achieved, summary.count(), summary.errorRate() * 100, dropped);
+        summary.print(out);
+        summary.appendCsv(Path.of(config.report()), threadMode, targetRps);
+        printFailures();
+
+        if (summary.errorRate() > config.maxErrorRate()) {
+            return String.format("error rate %.2f%% above %.2f%%", summary.errorRate() * 100, config.maxErrorRate() * 100);
+        }
+        List<String> slow = summary.slowEndpoints(config.p99Slo());
+        if (!slow.isEmpty()) {
+            return "p99 above " + config.p99Slo().toMillis() + " ms on " + slow;
+        }
+        if (dropped > 0) {
+            return dropped + " operations dropped (more than " + config.maxInFlight() + " in flight)";
+        }
+        return null;
+    }
+
+    private void execute(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        User user = users.get(random.nextInt(users.size()));
+        switch (operation) {
+            case READ_TREE -> client.getFamilyRelations(user.token);
+            case READ_NODE -> client.getNode(user.token, user.randomFamilyNode(random));
+            case KINSHIP -> client.getKinship(user.token, user.baseNodeId, user.randomFamilyNode(random));
+            case CREATE -> {
+                String relationType = random.nextDouble() < 0.2 ? "SPOUSE" : "CHILD";
+                int birthYear = LocalDate.now().getYear() - 1 - random.nextInt(80);
+                JsonNode node = client.createNode(user.token,
+                        generator.person(random, birthYear, user.randomFamilyNode(random), relationType));
+                long nodeId = node.get("id").asLong();
+                user.familyNodeIds.add(nodeId);
+                user.ownedNodeIds.add(nodeId);
+            }
+            case LOGIN -> user.token = client.login(user.username, PASSWORD).get("accessToken").asText();
+            case REGISTER -> {
+                User registered = registerWithBaseNode(random);
+                users.add(registered);
+                invitees.add(registered);
+            }
+            case INVITE -> invite(user, random);
+        }
+    }
+
+    // Un nœud de l'arbre de l'invitant est attribué à un nouvel utilisateur, dont le nœud de base est fusionné
+    private void invite(User inviter, Random random) {
+        Long nodeId = inviter.takeOwnedNode(random);
+        if (nodeId == null) {
+            // Aucun nœud à attribuer (utilisateur invité) : lecture de l'arbre à la place
+            client.getFamilyRelations(inviter.token);
+            return;
+        }
+        User invitee = invitees.poll();
+        if (invitee == null) {
+            invitee = registerWithBaseNode(random);
+            users.add(invitee);
+        }
+        String code = client.createInvitation(inviter.token, nodeId).get("invitationCode").asText();
+        client.useInvitation(invitee.token, code);
+
+        // L'invité rejoint la famille de l'invitant : même liste de nœuds
+        invitee.familyNodeIds = inviter.familyNodeIds;
+        invitee.baseNodeId = nodeId;
+    }
+
+    private User register() {
+        String username = "lt" + runId + threadMode.charAt(0) + userCounter.incrementAndGet();
+        JsonNode response = client.register(username, PASSWORD);
+        return new User(username, response.get("accessToken").asText());
+    }
+
+    private User registerWithBaseNode(Random random) {
+        User user = register();
+        Map<String, Object> person = generator.person(random, LocalDate.now().getYear() - 18 - random.nextInt(60), null, null);
+        person.put("baseNode", true);
+        long nodeId = client.createNode(user.token, person).get("id").asLong();
+        user.baseNodeId = nodeId;
+        user.familyNodeIds.add(nodeId);
+        return user;
+    }
+
+    private Operation[] weightedOperations() {
+        List<Operation> operations = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix has no operation");
+        }
+        return operations.toArray(Operation[]::new);
+    }
+
+    private void fail(ApiClient.ApiException e) {
+        String message = e.getMessage().length() > 160 ? e.getMessage().substring(0, 160) : e.getMessage();
+        failures.computeIfAbsent(message, key -> new LongAdder()).increment();
+    }
+
+    // Erreurs les plus fréquentes de la phase, pour orienter le diagnostic
+    private void printFailures() {
+        failures.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(5)
+                .forEach(entry -> out.printf("  %6d x %s%n", entry.getValue().sum(), entry.getKey()));
+        failures.clear();
+    }
+
+    private static class User {
+
+        private final String username;
+        private volatile String token;
+        private volatile long baseNodeId;
+        // Nœuds de la famille visible par l'utilisateur (listes qui ne font que grandir),
+        // et nœuds qu'il possède en dehors de son nœud de base (invitables)
+        private volatile List<Long> familyNodeIds = new CopyOnWriteArrayList<>();
+        private final List<Long> ownedNodeIds = new CopyOnWriteArrayList<>();
+
+        User(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+
+        long randomFamilyNode(Random random) {
+            List<Long> nodeIds = familyNodeIds;
+            return nodeIds.isEmpty() ? baseNodeId : nodeIds.get(random.nextInt(nodeIds.size()));
+        }
+
+        synchronized Long takeOwnedNode(Random random) {
+            return ownedNodeIds.isEmpty() ? null : ownedNodeIds.remove(random.nextInt(ownedNodeIds.size()));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.famillytree.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Point d'entrée : une exécution par modèle de threads, puis la comparaison des débits tenus
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ApiClient client = new ApiClient(config.baseUrl());
+
+        List<LoadRun.Result> results = new ArrayList<>();
+        for (String threadMode : config.threadModes()) {
+            if (config.appJar().isEmpty()) {
+                // Instance déjà démarrée : son modèle de threads n'est pas connu du test
+                results.add(new LoadRun(config, "external", client, System.out).run());
+                continue;
+            }
+            try (AppProcess ignored = AppProcess.start(config, threadMode, client)) {
+                results.add(new LoadRun(config, threadMode, client, System.out).run());
+            }
+        }
+
+        System.out.printf("%nSummary (details in %s)%n", config.report());
+        for (LoadRun.Result result : results) {
+            System.out.printf("  %-9s sustained %d req/s, %s%n", result.threadMode(), result.sustainedRps(), result.stopReason());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.famillytree.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Options du test, en arguments "cle=valeur" (ou "--cle=valeur") ; toute option inconnue est refusée
+public class LoadTestConfig {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        // Application testée : déjà démarrée sur base-url, ou lancée depuis app-jar contre db-url
+        DEFAULTS.put("base-url", "http://localhost:8080");
+        DEFAULTS.put("app-jar", "");
+        DEFAULTS.put("db-url", "jdbc:postgresql://localhost:5434/familytree");
+        DEFAULTS.put("db-username", "postgres");
+        DEFAULTS.put("db-password", "postgres");
+        DEFAULTS.put("app-startup-timeout", "PT2M");
+        // Modèles de threads de l'application, testés l'un après l'autre (app-jar requis pour en comparer plusieurs)
+        DEFAULTS.put("thread-modes", "platform");
+
+        // Familles synthétiques créées avant la charge
+        DEFAULTS.put("users", "20");
+        DEFAULTS.put("generations", "3");
+        DEFAULTS.put("fan-out", "3");
+        DEFAULTS.put("spouse-rate", "0.8");
+        DEFAULTS.put("interests", "3");
+        DEFAULTS.put("max-nodes-per-tree", "10000");
+        DEFAULTS.put("seed", "42");
+
+        // Trafic : poids relatifs des opérations
+        DEFAULTS.put("mix", "read-tree:40,read-node:20,kinship:8,create:15,login:8,register:5,invite:4");
+
+        // Paliers de débit : rps, rps + rps-step, ... jusqu'à max-rps, ou jusqu'à saturation
+        DEFAULTS.put("rps", "20");
+        DEFAULTS.put("rps-step", "0");
+        DEFAULTS.put("max-rps", "0");
+        DEFAULTS.put("stage-duration", "PT1M");
+        DEFAULTS.put("max-in-flight", "2000");
+
+        // Critères de saturation d'un palier
+        DEFAULTS.put("max-error-rate", "0.01");
+        DEFAULTS.put("p99-slo", "PT2S");
+
+        DEFAULTS.put("report", "target/loadtest-report.csv");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadTestConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(option.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + " (known options: " + DEFAULTS.keySet() + ")");
+            }
+            values.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        return new LoadTestConfig(values);
+    }
+
+    public URI baseUrl() {
+        return URI.create(get("base-url").replaceAll("/+$", ""));
+    }
+
+    public String appJar() {
+        return get("app-jar");
+    }
+
+    public String dbUrl() {
+        return get("db-url");
+    }
+
+    public String dbUsername() {
+        return get("db-username");
+    }
+
+    public String dbPassword() {
+        return get("db-password");
+    }
+
+    public Duration appStartupTimeout() {
+        return Duration.parse(get("app-startup-timeout"));
+    }
+
+    public List<String> threadModes() {
+        List<String> modes = List.of(get("thread-modes").split(","));
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("Unknown thread mode: " + mode + " (platform or virtual)");
+            }
+        }
+        if (modes.size() > 1 && appJar().isEmpty()) {
+            throw new IllegalArgumentException("Comparing thread modes requires app-jar: the test restarts the application");
+        }
+        return modes;
+    }
+
+    public int users() {
+        return getInt("users");
+    }
+
+    public int generations() {
+        return getInt("generations");
+    }
+
+    public int fanOut() {
+        return getInt("fan-out");
+    }
+
+    public double spouseRate() {
+        return getDouble("spouse-rate");
+    }
+
+    public int interests() {
+        return getInt("interests");
+    }
+
+    public int maxNodesPerTree() {
+        return getInt("max-nodes-per-tree");
+    }
+
+    public long seed() {
+        return Long.parseLong(get("seed"));
+    }
+
+    public Map<Operation, Integer> mix() {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : get("mix").split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    // Débits cibles des paliers successifs
+    public List<Integer> stages() {
+        int rps = getInt("rps");
+        int step = getInt("rps-step");
+        int max = Math.max(getInt("max-rps"), rps);
+        List<Integer> stages = new ArrayList<>();
+        stages.add(rps);
+        for (int target = rps + step; step > 0 && target <= max; target += step) {
+            stages.add(target);
+        }
+        return stages;
+    }
+
+    public Duration stageDuration() {
+        return Duration.parse(get("stage-duration"));
+    }
+
+    public int maxInFlight() {
+        return getInt("max-in-flight");
+    }
+
+    public double maxErrorRate() {
+        return getDouble("max-error-rate");
+    }
+
+    public Duration p99Slo() {
+        return Duration.parse(get("p99-slo"));
+    }
+
+    public String report() {
+        return get("report");
+    }
+
+    private String get(String key) {
+        return values.get(key);
+    }
+
+    private int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    private double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    // Opérations du trafic mixte
+    public enum Operation {
+        READ_TREE("read-tree"),
+        READ_NODE("read-node"),
+        KINSHIP("kinship"),
+        CREATE("create"),
+        LOGIN("login"),
+        REGISTER("register"),
+        INVITE("invite");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.famillytree.auth.config;
 
 import com.famillytree.auth.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,6 +26,8 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.disable())
             .authorizeHttpRequests(auth -> auth
+                // Fin des réponses asynchrones (exports en flux) : la requête initiale a déjà été autorisée
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Documentation Swagger
                 .requestMatchers("/api/swagger-ui/**").permitAll()
                 .requestMatchers("/api/swagger-ui.html").permitAll()
@@ -49,6 +49,13 @@ public class AuthController {
         return ResponseEntity.ok(authService.refreshToken(request));
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Logout user", description = "Revokes every token issued to the authenticated user")
+    public ResponseEntity<Void> logout() {
+        authService.logout();
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/verify")
     @Operation(summary = "Verify token", description = "Verifies if the provided JWT token is valid")
     public ResponseEntity<Map<String, Boolean>> verifyToken(
@@ -44,6 +44,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    // Incrémentée pour révoquer tous les jetons déjà émis
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -1,10 +1,14 @@
 package com.famillytree.auth.security;
 
+import com.famillytree.auth.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,6 +27,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    @Value("${jwt.stateless-authentication:true}")
+    private boolean statelessAuthentication;
 
     private static final List<String> PUBLIC_PATHS = Arrays.asList(
         "/api/auth/register",
@@ -47,7 +55,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final Claims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -55,21 +63,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+        try {
+            // Signature et expiration vérifiées une seule fois pour toute la requête
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Les jetons émis sans identifiant utilisateur passent par UserDetailsService
+            User principal = statelessAuthentication ? jwtService.extractPrincipal(claims) : null;
+            UsernamePasswordAuthenticationToken authToken = principal != null
+                    ? authenticateFromClaims(principal, claims)
+                    : authenticateFromUserDetails(claims);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-                );
+            if (authToken != null) {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    // Chemin sans base de données : principal, rôles et version du jeton lus dans les claims
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(User principal, Claims claims) {
+        if (!tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(principal, null, jwtService.extractAuthorities(claims));
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromUserDetails(Claims claims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        );
+    }
+}
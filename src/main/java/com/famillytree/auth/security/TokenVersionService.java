@@ -0,0 +1,48 @@
+package com.famillytree.auth.security;
+
+import com.famillytree.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Version des jetons de chaque utilisateur, gardée en cache : un jeton dont la version
+// est dépassée est refusé sans recharger l'utilisateur à chaque requête
+@Service
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Optional<Integer>> versionsByUser;
+
+    public TokenVersionService(UserRepository userRepository,
+                               @Value("${jwt.token-version-cache.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versionsByUser = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        Optional<Integer> currentVersion = versionsByUser.get(userId, userRepository::findTokenVersionById);
+        return currentVersion.isPresent() && currentVersion.get().equals(tokenVersion == null ? 0 : tokenVersion);
+    }
+
+    @Transactional
+    public void revoke(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        versionsByUser.invalidate(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versionsByUser.invalidate(userId);
+            }
+        });
+    }
+}
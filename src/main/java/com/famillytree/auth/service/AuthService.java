@@ -8,12 +8,15 @@ import com.famillytree.auth.exception.AuthException;
 import com.famillytree.auth.model.User;
 import com.famillytree.auth.repository.UserRepository;
 import com.famillytree.auth.security.JwtService;
+import com.famillytree.auth.security.TokenVersionService;
 import com.famillytree.node.model.Node;
 import com.famillytree.node.repository.NodeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +33,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final NodeRepository nodeRepository;
+    private final TokenVersionService tokenVersionService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -119,6 +123,15 @@ public class AuthService {
         }
     }
 
+    // Révoque tous les jetons émis pour l'utilisateur courant
+    public void logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user) || user.getId() == null) {
+            throw AuthException.invalidToken();
+        }
+        tokenVersionService.revoke(user.getId());
+    }
+
     public boolean verifyToken(String token) {
         try {
             String username = jwtService.extractUsername(token);
@@ -0,0 +1,69 @@
+package com.famillytree.config;
+
+import com.famillytree.node.exception.NodeException;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Budget de requêtes SQL d'une requête HTTP, alimenté par QueryCounter sur le thread de la requête.
+// Une même requête SQL exécutée de nombreuses fois trahit un N+1 (chargement paresseux dans une boucle).
+@Getter
+public class QueryBudget {
+
+    private static final int MAX_SQL_LENGTH = 200;
+
+    private final long maxStatements;
+    private final long maxEntities;
+    private final int maxRepeats;
+    private final boolean reject;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Integer> executions = new HashMap<>();
+    private long statements;
+    private long entities;
+    // Premier dépassement constaté, null tant que le budget est respecté
+    private String violation;
+
+    public QueryBudget(long maxStatements, long maxEntities, int maxRepeats, boolean reject) {
+        this.maxStatements = maxStatements;
+        this.maxEntities = maxEntities;
+        this.maxRepeats = maxRepeats;
+        this.reject = reject;
+    }
+
+    void onStatement(String sql) {
+        statements++;
+        int count = executions.merge(sql, 1, Integer::sum);
+        if (statements > maxStatements) {
+            exceeded(statements + " SQL statements (budget " + maxStatements + ")");
+        } else if (count > maxRepeats) {
+            exceeded("N+1 suspected, same statement executed " + count + " times (budget " + maxRepeats + "): "
+                    + abbreviate(sql));
+        }
+    }
+
+    void onEntity() {
+        entities++;
+        if (entities > maxEntities) {
+            exceeded(entities + " entities loaded (budget " + maxEntities + ")");
+        }
+    }
+
+    // Seul le premier dépassement interrompt la requête : la gestion de l'erreur peut encore accéder à la base
+    private void exceeded(String reason) {
+        if (violation != null) {
+            return;
+        }
+        violation = reason;
+        if (reject) {
+            throw NodeException.queryBudgetExceeded(reason);
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > MAX_SQL_LENGTH ? singleLine.substring(0, MAX_SQL_LENGTH) + "..." : singleLine;
+    }
+}
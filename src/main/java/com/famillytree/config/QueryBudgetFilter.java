@@ -0,0 +1,74 @@
+package com.famillytree.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Budget de requêtes SQL par requête HTTP (familytree.query-budget.*). En mode log, un dépassement est journalisé
+// et compté ; en mode reject, la requête échoue dès le dépassement et sa transaction est annulée, pour que les tests
+// détectent les régressions. Placé avant Spring Security (spring.security.filter.order=10) pour compter aussi
+// l'authentification. Le travail fait hors du thread de la requête (tâches asynchrones, SSE) n'est pas compté.
+@Slf4j
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".BUDGET";
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${familytree.query-budget.mode:log}")
+    private Mode mode;
+
+    @Value("${familytree.query-budget.max-statements:200}")
+    private long maxStatements;
+
+    @Value("${familytree.query-budget.max-entities:50000}")
+    private long maxEntities;
+
+    @Value("${familytree.query-budget.max-repeats:50}")
+    private int maxRepeats;
+
+    public enum Mode {
+        OFF, LOG, REJECT
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (mode == Mode.OFF) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        QueryBudget budget = new QueryBudget(maxStatements, maxEntities, maxRepeats, mode == Mode.REJECT);
+        request.setAttribute(BUDGET_ATTRIBUTE, budget);
+        queryCounter.startBudget(budget);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryCounter.endBudget();
+            if (budget.getViolation() != null) {
+                meterRegistry.counter("familytree.query-budget.exceeded", "mode", mode.name().toLowerCase()).increment();
+                log.warn("Budget de requêtes dépassé sur {} {} ({} requêtes SQL, {} entités chargées) : {}",
+                        request.getMethod(), request.getRequestURI(),
+                        budget.getStatements(), budget.getEntities(), budget.getViolation());
+            }
+        }
+    }
+}
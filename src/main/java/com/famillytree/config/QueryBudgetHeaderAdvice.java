@@ -0,0 +1,45 @@
+package com.famillytree.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Nombre de requêtes SQL et d'entités chargées pour la requête, en en-têtes de réponse.
+// Activé par familytree.query-budget.headers (profil dev) : à ne pas exposer en production.
+@RestControllerAdvice
+public class QueryBudgetHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ENTITIES_HEADER = "X-Entity-Load-Count";
+
+    @Value("${familytree.query-budget.headers:false}")
+    private boolean headersEnabled;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return headersEnabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE) instanceof QueryBudget budget) {
+            response.getHeaders().set(STATEMENTS_HEADER, Long.toString(budget.getStatements()));
+            response.getHeaders().set(ENTITIES_HEADER, Long.toString(budget.getEntities()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,59 @@
+package com.famillytree.config;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+// Compteurs, par thread, des requêtes SQL préparées et des entités chargées par Hibernate.
+// Les compteurs ne font que croître : une mesure est la différence entre deux relevés du même thread.
+// Les requêtes JdbcTemplate ne passent pas par Hibernate et ne sont pas comptées.
+// Pendant une requête HTTP, le travail est aussi imputé à son budget (QueryBudgetFilter).
+@Component
+public class QueryCounter implements StatementInspector, Interceptor {
+
+    private final transient ThreadLocal<long[]> counts = ThreadLocal.withInitial(() -> new long[2]);
+    private final transient ThreadLocal<QueryBudget> budgets = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        counts.get()[0]++;
+        QueryBudget budget = budgets.get();
+        if (budget != null) {
+            budget.onStatement(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        counts.get()[1]++;
+        QueryBudget budget = budgets.get();
+        if (budget != null) {
+            budget.onEntity();
+        }
+        return false;
+    }
+
+    public void startBudget(QueryBudget budget) {
+        budgets.set(budget);
+    }
+
+    public void endBudget() {
+        budgets.remove();
+    }
+
+    public Snapshot snapshot() {
+        long[] current = counts.get();
+        return new Snapshot(current[0], current[1]);
+    }
+
+    // Travail effectué par le thread courant depuis le relevé
+    public Snapshot since(Snapshot start) {
+        Snapshot now = snapshot();
+        return new Snapshot(now.statements() - start.statements(), now.entities() - start.entities());
+    }
+
+    public record Snapshot(long statements, long entities) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.famillytree.node.cache;
+
+import com.famillytree.node.dto.FamilyGraphResponse;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.exception.NodeException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Relations familiales calculées (et déjà sérialisées en JSON, aux formats complet et compact) par nœud de base.
+// Les entrées couvrant un nœud modifié sont évincées après validation de l'écriture.
+@Component
+public class FamilyRelationsCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> relationsByBaseNode;
+    private final Cache<Long, Long> baseNodeIdsByUser;
+    // Incrémenté à chaque éviction : un calcul concurrent d'une écriture n'est pas conservé
+    private final AtomicLong invalidationCount = new AtomicLong();
+    // Évictions dues aux écritures : absentes des statistiques Caffeine, qui ne comptent que taille et expiration
+    private final Counter invalidatedEntries;
+
+    public FamilyRelationsCache(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${familytree.relations-cache.max-size-bytes:67108864}") long maxSizeBytes,
+                                @Value("${familytree.relations-cache.ttl:PT10M}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.relationsByBaseNode = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((Long baseNodeId, Entry entry) -> entry.getJson().length + entry.getCompactJson().length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.baseNodeIdsByUser = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, relationsByBaseNode, "familyRelations");
+        CaffeineCacheMetrics.monitor(meterRegistry, baseNodeIdsByUser, "baseNodeIds");
+        this.invalidatedEntries = Counter.builder("familytree.relations-cache.invalidations")
+                .description("Family relations cache entries evicted because a covered node was written")
+                .register(meterRegistry);
+    }
+
+    public Entry get(Long baseNodeId, Supplier<Set<NodeRelationDTO>> loader) {
+        Entry entry = relationsByBaseNode.getIfPresent(baseNodeId);
+        if (entry != null) {
+            return entry;
+        }
+
+        long computedAt = invalidationCount.get();
+        entry = createEntry(baseNodeId, loader.get());
+        if (computedAt == invalidationCount.get()) {
+            relationsByBaseNode.put(baseNodeId, entry);
+        }
+        return entry;
+    }
+
+    public Long getBaseNodeId(Long userId, Supplier<Long> loader) {
+        return baseNodeIdsByUser.get(userId, id -> loader.get());
+    }
+
+    // Exécuté après la mise à jour du graphe en mémoire (FamilyGraphRegistry)
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFamilyTreeEvent(FamilyTreeEvent event) {
+        invalidationCount.incrementAndGet();
+        if (event.getNode() != null) {
+            baseNodeIdsByUser.invalidate(event.getNode().getUserId());
+        }
+        if (event.getUserId() != null) {
+            baseNodeIdsByUser.invalidate(event.getUserId());
+        }
+        evictCovering(event.getNodeIds());
+    }
+
+    private void evictCovering(Collection<Long> nodeIds) {
+        List<Long> baseNodeIds = relationsByBaseNode.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().covers(nodeIds))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!baseNodeIds.isEmpty()) {
+            relationsByBaseNode.invalidateAll(baseNodeIds);
+            invalidatedEntries.increment(baseNodeIds.size());
+        }
+    }
+
+    private Entry createEntry(Long baseNodeId, Set<NodeRelationDTO> relations) {
+        Set<Long> nodeIds = new HashSet<>();
+        nodeIds.add(baseNodeId);
+        for (NodeRelationDTO relation : relations) {
+            nodeIds.add(relation.getNode1().getId());
+            nodeIds.add(relation.getNode2().getId());
+        }
+        try {
+            return new Entry(relations,
+                    objectMapper.writeValueAsBytes(relations),
+                    objectMapper.writeValueAsBytes(FamilyGraphResponse.from(relations)),
+                    nodeIds);
+        } catch (JsonProcessingException e) {
+            throw new NodeException("Impossible de sérialiser les relations familiales: " + e.getMessage());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final Set<NodeRelationDTO> relations;
+        private final byte[] json;
+        // Même contenu au format compact (FamilyGraphResponse)
+        private final byte[] compactJson;
+        // Nœud de base et tous les nœuds présents dans les relations
+        private final Set<Long> nodeIds;
+
+        private boolean covers(Collection<Long> ids) {
+            return ids.stream().anyMatch(nodeIds::contains);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.famillytree.node.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Remplit node_closure à partir des relations CHILD existantes lors du premier démarrage
+// avec la table de fermeture ; ensuite elle est tenue à jour par NodeClosureService
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class NodeClosureInitializer {
+
+    // Borne de sécurité contre des relations CHILD cycliques
+    private static final int MAX_GENERATIONS = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void backfill() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM node_closure)", Boolean.class))) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO node_closure (ancestor_id, descendant_id, depth)
+                WITH RECURSIVE paths(ancestor_id, descendant_id, depth) AS (
+                    SELECT r.node1_id, r.node2_id, 1
+                    FROM node_relations r
+                    WHERE r.relation = 'CHILD'
+                    UNION
+                    SELECT p.ancestor_id, r.node2_id, p.depth + 1
+                    FROM paths p
+                    JOIN node_relations r ON r.node1_id = p.descendant_id AND r.relation = 'CHILD'
+                    WHERE p.depth < ?
+                )
+                SELECT ancestor_id, descendant_id, MIN(depth)
+                FROM paths
+                WHERE ancestor_id <> descendant_id
+                GROUP BY ancestor_id, descendant_id
+                """, MAX_GENERATIONS);
+    }
+}
@@ -2,8 +2,10 @@ package com.famillytree.node.config;
 
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @ComponentScan(basePackages = "com.famillytree.node")
+@EnableScheduling
 public class NodeConfig {
 } 
\ No newline at end of file
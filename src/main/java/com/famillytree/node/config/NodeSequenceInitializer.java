@@ -0,0 +1,30 @@
+package com.famillytree.node.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Les IDs de nœuds et de relations étaient auparavant générés par des colonnes IDENTITY.
+// Au démarrage, les séquences sont avancées au-delà des IDs existants si nécessaire.
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class NodeSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        align("nodes_seq", "nodes");
+        align("node_relations_seq", "node_relations");
+    }
+
+    private void align(String sequence, String table) {
+        // Sans effet une fois la séquence en avance : aucun retour en arrière possible
+        jdbcTemplate.queryForList(
+                "SELECT setval('" + sequence + "', t.max_id) FROM (SELECT MAX(id) AS max_id FROM " + table + ") t "
+                        + "WHERE t.max_id >= (SELECT last_value FROM " + sequence + ")");
+    }
+}
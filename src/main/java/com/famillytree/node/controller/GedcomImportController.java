@@ -0,0 +1,75 @@
+package com.famillytree.node.controller;
+
+import com.famillytree.node.dto.GedcomImportResponse;
+import com.famillytree.node.service.GedcomImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/nodes/import/gedcom")
+@RequiredArgsConstructor
+@Tag(name = "GEDCOM Import", description = "API d'import de fichiers GEDCOM 5.5.1")
+@SecurityRequirement(name = "bearerAuth")
+public class GedcomImportController {
+
+    private final GedcomImportService gedcomImportService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importer un fichier GEDCOM", description = "Enregistre le fichier et lance son import en tâche de fond. La progression est consultable avec l'ID retourné.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import lancé",
+            content = @Content(schema = @Schema(implementation = GedcomImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Fichier vide"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "503", description = "Import enregistré mais non planifié, à reprendre plus tard")
+    })
+    public ResponseEntity<GedcomImportResponse> startImport(
+            @Parameter(description = "Fichier GEDCOM (UTF-8)", required = true)
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.accepted().body(gedcomImportService.startImport(file));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Consulter un import GEDCOM", description = "Retourne l'état et la progression d'un import")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import récupéré avec succès",
+            content = @Content(schema = @Schema(implementation = GedcomImportResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Non autorisé"),
+        @ApiResponse(responseCode = "404", description = "Import non trouvé")
+    })
+    public ResponseEntity<GedcomImportResponse> getImport(
+            @Parameter(description = "ID de l'import", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.ok(gedcomImportService.getImport(id));
+    }
+
+    @PostMapping(value = "/{id}/resume", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Reprendre un import GEDCOM", description = "Relance un import échoué ou interrompu à partir du dernier lot validé")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import relancé",
+            content = @Content(schema = @Schema(implementation = GedcomImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Import déjà terminé ou en cours"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Non autorisé"),
+        @ApiResponse(responseCode = "404", description = "Import non trouvé"),
+        @ApiResponse(responseCode = "409", description = "Fichier de l'import absent de cette instance"),
+        @ApiResponse(responseCode = "503", description = "Import non planifié, à reprendre plus tard")
+    })
+    public ResponseEntity<GedcomImportResponse> resumeImport(
+            @Parameter(description = "ID de l'import", required = true)
+            @PathVariable Long id) {
+        return ResponseEntity.accepted().body(gedcomImportService.resumeImport(id));
+    }
+}
@@ -1,5 +1,6 @@
 package com.famillytree.node.controller;
 
+import com.famillytree.config.JacksonConfig;
 import com.famillytree.node.dto.InvitationRequest;
 import com.famillytree.node.dto.InvitationResponse;
 import com.famillytree.node.service.InvitationService;
@@ -26,7 +27,7 @@ public class InvitationController {
 
     private final InvitationService invitationService;
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Créer une invitation", description = "Crée une nouvelle invitation pour un nœud. Seul le propriétaire du nœud peut créer une invitation.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Invitation créée avec succès",
@@ -42,7 +43,7 @@ public class InvitationController {
         return ResponseEntity.ok(invitationService.createInvitation(request));
     }
 
-    @PutMapping(value = "/{invitationKey}/use", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/{invitationKey}/use", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Utiliser une invitation", description = "Marque une invitation comme utilisée. Une invitation ne peut être utilisée qu'une seule fois.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Invitation utilisée avec succès",
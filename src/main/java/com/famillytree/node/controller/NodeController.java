@@ -1,10 +1,26 @@
 package com.famillytree.node.controller;
 
+import com.famillytree.config.JacksonConfig;
+import com.famillytree.node.cache.FamilyRelationsCache;
+import com.famillytree.node.dto.AncestryResponse;
+import com.famillytree.node.dto.CommonAncestorDTO;
+import com.famillytree.node.dto.FamilyGraphResponse;
+import com.famillytree.node.dto.KinshipResponse;
+import com.famillytree.node.dto.NodePageResponse;
 import com.famillytree.node.dto.NodeRequest;
 import com.famillytree.node.dto.NodeUpdateRequest;
 import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.dto.RelativeDTO;
+import com.famillytree.node.dto.TreeChangesResponse;
+import com.famillytree.node.dto.TreeImportRequest;
+import com.famillytree.node.dto.TreeImportResponse;
+import com.famillytree.node.graph.FamilyWindow;
 import com.famillytree.node.model.Node;
+import com.famillytree.node.service.NodeClosureService;
 import com.famillytree.node.service.NodeService;
+import com.famillytree.node.service.TreeChangeService;
+import com.famillytree.node.service.TreeImportService;
+import com.famillytree.node.service.TreeVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,12 +29,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 @RestController
@@ -29,8 +52,18 @@ import java.util.Set;
 public class NodeController {
 
     private final NodeService nodeService;
+    private final TreeImportService treeImportService;
+    private final NodeClosureService nodeClosureService;
+    private final TreeVersionService treeVersionService;
+    private final TreeChangeService treeChangeService;
 
-    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    private static final MediaType COMPACT_MEDIA_TYPE = MediaType.parseMediaType(FamilyGraphResponse.MEDIA_TYPE);
+    private static final MediaType SMILE_MEDIA_TYPE = MediaType.parseMediaType(JacksonConfig.APPLICATION_SMILE_VALUE);
+    // Formats des relations familiales, par ordre de préférence à qualité égale
+    private static final List<MediaType> RELATIONS_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, COMPACT_MEDIA_TYPE, MediaType.APPLICATION_CBOR, SMILE_MEDIA_TYPE);
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Créer un nouveau nœud", description = "Crée un nouveau nœud dans l'arbre généalogique pour l'utilisateur authentifié")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Nœud créé avec succès",
@@ -45,35 +78,178 @@ public class NodeController {
         return ResponseEntity.ok(nodeService.createNode(request));
     }
 
-    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Récupérer les relations familiales", description = "Récupère toutes les relations familiales à partir du nœud de base de l'utilisateur authentifié")
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Importer un arbre complet", description = "Crée en une seule transaction un ensemble de nœuds, identifiés par des références temporaires, et leurs relations")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Arbre importé avec succès",
+            content = @Content(schema = @Schema(implementation = TreeImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Données invalides"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "404", description = "Nœud existant référencé non trouvé")
+    })
+    public ResponseEntity<TreeImportResponse> importTree(
+            @Parameter(description = "Nœuds et relations à importer", required = true)
+            @Valid @RequestBody TreeImportRequest request) {
+        return ResponseEntity.ok(treeImportService.importTree(request));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, FamilyGraphResponse.MEDIA_TYPE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Récupérer les relations familiales", description = "Récupère les relations familiales à partir du nœud de base de l'utilisateur authentifié, ou d'un autre nœud (focusId). Sans paramètre, toutes les générations et tous les types de relations sont retournés. Le format compact (nœuds indexés par ID et relations [fromId, toId, type]) est obtenu avec format=compact ou l'en-tête Accept: " + FamilyGraphResponse.MEDIA_TYPE + ". Les encodages binaires CBOR et Smile sont disponibles par l'en-tête Accept.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Relations familiales récupérées avec succès",
-            content = @Content(schema = @Schema(implementation = NodeRelationDTO.class))),
+            content = {
+                @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = NodeRelationDTO.class)),
+                @Content(mediaType = FamilyGraphResponse.MEDIA_TYPE, schema = @Schema(implementation = FamilyGraphResponse.class))
+            }),
+        @ApiResponse(responseCode = "304", description = "Arbre inchangé depuis l'ETag fourni dans If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Nombre de générations invalide"),
         @ApiResponse(responseCode = "401", description = "Non authentifié"),
-        @ApiResponse(responseCode = "404", description = "Nœud de base non trouvé")
+        @ApiResponse(responseCode = "403", description = "Nœud focus hors de l'arbre de l'utilisateur"),
+        @ApiResponse(responseCode = "404", description = "Nœud de base ou nœud focus non trouvé")
     })
-    public ResponseEntity<Set<NodeRelationDTO>> getFamilyRelations() {
-        Node baseNode = nodeService.getBaseNode();
-        Set<NodeRelationDTO> relations = nodeService.getAllFamilyRelations(baseNode);
-        return ResponseEntity.ok(relations);
+    public ResponseEntity<?> getFamilyRelations(
+            @Parameter(description = "Nombre maximal de générations au-dessus du nœud")
+            @RequestParam(required = false) Integer generationsUp,
+            @Parameter(description = "Nombre maximal de générations en dessous du nœud")
+            @RequestParam(required = false) Integer generationsDown,
+            @Parameter(description = "Types de relations à inclure (par défaut : tous)")
+            @RequestParam(required = false) Set<FamilyWindow.Kind> kinds,
+            @Parameter(description = "ID du nœud central, à la place du nœud de base")
+            @RequestParam(required = false) Long focusId,
+            @Parameter(description = "Format de la réponse : 'compact' pour le format nœuds/relations")
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+        // La représentation et l'ETag dépendent de Accept, réponses 304 comprises
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        // Arbre inchangé depuis la dernière lecture du client : 304 sans parcours ni sérialisation
+        Node focus = focusId != null ? nodeService.getFocusNode(focusId) : null;
+        Long ownerId = focus != null ? focus.getUserId() : nodeService.getCurrentUserId();
+        String eTag = treeVersionService.getETag(ownerId,
+                Objects.hash(generationsUp, generationsDown, kinds, focusId, format, accept));
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        MediaType mediaType = negotiate(accept);
+        boolean compact = "compact".equalsIgnoreCase(format) || COMPACT_MEDIA_TYPE.equals(mediaType);
+        boolean binary = MediaType.APPLICATION_CBOR.equals(mediaType) || SMILE_MEDIA_TYPE.equals(mediaType);
+        boolean window = generationsUp != null || generationsDown != null || kinds != null || focusId != null;
+        // CBOR ou Smile : le convertisseur Jackson du format choisi encode la réponse
+        MediaType contentType = binary ? mediaType : compact ? COMPACT_MEDIA_TYPE : MediaType.APPLICATION_JSON;
+
+        Set<NodeRelationDTO> relations;
+        if (!window) {
+            FamilyRelationsCache.Entry entry = nodeService.getCachedFamilyRelations();
+            if (!binary) {
+                // Relations déjà sérialisées en JSON par le cache
+                return ResponseEntity.ok()
+                        .contentType(contentType)
+                        .body(compact ? entry.getCompactJson() : entry.getJson());
+            }
+            relations = entry.getRelations();
+        } else {
+            relations = nodeService.getFamilyRelations(focus, generationsUp, generationsDown, kinds);
+        }
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(compact ? FamilyGraphResponse.from(relations) : relations);
+    }
+
+    // Représentation demandée par l'en-tête Accept : pour chaque format proposé, la qualité (q) est celle de la
+    // plage la plus précise qui l'accepte (type exact, puis joker) ; à qualité égale, l'ordre de RELATIONS_MEDIA_TYPES
+    private static MediaType negotiate(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = 0;
+        for (MediaType candidate : RELATIONS_MEDIA_TYPES) {
+            MediaType range = null;
+            for (MediaType acceptedType : acceptedTypes) {
+                if (acceptedType.includes(candidate) && (range == null || specificity(acceptedType) > specificity(range))) {
+                    range = acceptedType;
+                }
+            }
+            if (range != null && range.getQualityValue() > bestQuality) {
+                best = candidate;
+                bestQuality = range.getQualityValue();
+            }
+        }
+        return best;
+    }
+
+    private static int specificity(MediaType range) {
+        if (range.isWildcardType()) {
+            return 0;
+        }
+        return range.isWildcardSubtype() ? 1 : 2;
     }
 
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/owned", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Lister ses nœuds", description = "Liste paginée des nœuds de l'utilisateur authentifié, triés par ID. Passer 'nextCursor' de la réponse pour obtenir la page suivante.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page de nœuds récupérée avec succès",
+            content = @Content(schema = @Schema(implementation = NodePageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié")
+    })
+    public ResponseEntity<NodePageResponse> getOwnedNodes(
+            @Parameter(description = "Curseur de continuation retourné par la page précédente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Nombre de nœuds par page")
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(nodeService.getNodes(cursor, size));
+    }
+
+    @GetMapping(value = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Modifications de l'arbre", description = "Retourne les modifications de l'arbre de l'utilisateur authentifié depuis le curseur 'since', dans l'ordre de validation. Sans curseur, retourne seulement le curseur de la version courante.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Modifications récupérées avec succès",
+            content = @Content(schema = @Schema(implementation = TreeChangesResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Curseur ou taille de page invalide"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié")
+    })
+    public ResponseEntity<TreeChangesResponse> getChanges(
+            @Parameter(description = "Curseur retourné par l'appel précédent")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Nombre maximal de modifications retournées")
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(treeChangeService.getChanges(since, size));
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Récupérer un nœud par son ID", description = "Récupère les détails d'un nœud spécifique de l'arbre généalogique")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Nœud récupéré avec succès",
             content = @Content(schema = @Schema(implementation = Node.class))),
+        @ApiResponse(responseCode = "304", description = "Arbre inchangé depuis l'ETag fourni dans If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Nœud non trouvé"),
         @ApiResponse(responseCode = "401", description = "Non authentifié")
     })
     public ResponseEntity<Node> getNodeById(
             @Parameter(description = "ID du nœud à récupérer", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(nodeService.getNodeById(id));
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Node node = nodeService.getNodeById(id);
+        if (webRequest.checkNotModified(treeVersionService.getETag(node.getUserId(), Objects.hash(id, accept)))) {
+            return null;
+        }
+        return ResponseEntity.ok(node);
     }
 
-    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Mettre à jour un nœud", description = "Met à jour les informations d'un nœud existant. Seul le propriétaire du nœud peut le modifier.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Nœud mis à jour avec succès",
@@ -90,4 +266,74 @@ public class NodeController {
             @Valid @RequestBody NodeUpdateRequest request) {
         return ResponseEntity.ok(nodeService.updateNode(id, request));
     }
-} 
\ No newline at end of file
+
+    @GetMapping(value = "/{id}/ancestor-of/{descendantId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Vérifier une ascendance", description = "Indique si un nœud est un ancêtre d'un autre et à combien de générations")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ascendance vérifiée",
+            content = @Content(schema = @Schema(implementation = AncestryResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Nœud hors de l'arbre de l'utilisateur"),
+        @ApiResponse(responseCode = "404", description = "Nœud non trouvé")
+    })
+    public ResponseEntity<AncestryResponse> getAncestry(
+            @Parameter(description = "ID de l'ancêtre présumé", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ID du descendant présumé", required = true)
+            @PathVariable Long descendantId) {
+        return ResponseEntity.ok(nodeClosureService.getAncestry(nodeService.getCurrentUserId(), id, descendantId));
+    }
+
+    @GetMapping(value = "/{id}/descendants", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Récupérer les descendants", description = "Récupère les descendants d'un nœud sur au plus maxDepth générations, du plus proche au plus lointain")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Descendants récupérés avec succès"),
+        @ApiResponse(responseCode = "400", description = "Profondeur invalide"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Nœud hors de l'arbre de l'utilisateur"),
+        @ApiResponse(responseCode = "404", description = "Nœud non trouvé")
+    })
+    public ResponseEntity<List<RelativeDTO>> getDescendants(
+            @Parameter(description = "ID du nœud", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Nombre maximal de générations", required = true)
+            @RequestParam int maxDepth) {
+        return ResponseEntity.ok(nodeClosureService.getDescendants(nodeService.getCurrentUserId(), id, maxDepth));
+    }
+
+    @GetMapping(value = "/{id}/common-ancestors/{otherId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Récupérer les ancêtres communs les plus proches", description = "Récupère les ancêtres communs de deux nœuds à la plus petite distance cumulée")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Ancêtres communs récupérés avec succès"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Nœud hors de l'arbre de l'utilisateur"),
+        @ApiResponse(responseCode = "404", description = "Nœud non trouvé")
+    })
+    public ResponseEntity<List<CommonAncestorDTO>> getLowestCommonAncestors(
+            @Parameter(description = "ID du premier nœud", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ID du second nœud", required = true)
+            @PathVariable Long otherId) {
+        return ResponseEntity.ok(nodeClosureService.getLowestCommonAncestors(nodeService.getCurrentUserId(), id, otherId));
+    }
+
+    @GetMapping(value = "/{id}/kinship/{otherId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Calculer un lien de parenté", description = "Retourne le plus court chemin de parenté entre deux nœuds et le lien correspondant (ex. \"second cousin once removed\")")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lien de parenté calculé",
+            content = @Content(schema = @Schema(implementation = KinshipResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Profondeur invalide"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "403", description = "Premier nœud hors de l'arbre de l'utilisateur"),
+        @ApiResponse(responseCode = "404", description = "Nœud non trouvé")
+    })
+    public ResponseEntity<KinshipResponse> getKinship(
+            @Parameter(description = "ID du premier nœud", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "ID du second nœud", required = true)
+            @PathVariable Long otherId,
+            @Parameter(description = "Longueur maximale du chemin recherché")
+            @RequestParam(required = false) Integer maxDepth) {
+        return ResponseEntity.ok(nodeService.getKinship(id, otherId, maxDepth));
+    }
+}
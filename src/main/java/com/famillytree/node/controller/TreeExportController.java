@@ -0,0 +1,64 @@
+package com.famillytree.node.controller;
+
+import com.famillytree.node.service.TreeExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/nodes/export")
+@RequiredArgsConstructor
+@Tag(name = "Export", description = "API d'export de l'arbre généalogique")
+@SecurityRequirement(name = "bearerAuth")
+public class TreeExportController {
+
+    private static final MediaType GEDCOM = MediaType.parseMediaType("text/vnd.familysearch.gedcom;charset=UTF-8");
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final TreeExportService treeExportService;
+
+    @GetMapping(value = "/gedcom", produces = "text/vnd.familysearch.gedcom")
+    @Operation(summary = "Exporter l'arbre en GEDCOM", description = "Exporte en GEDCOM 5.5.1 tous les nœuds et relations de l'arbre de l'utilisateur authentifié")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fichier GEDCOM"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "400", description = "Nœud de base non trouvé")
+    })
+    public ResponseEntity<StreamingResponseBody> exportGedcom() {
+        Long baseNodeId = treeExportService.getBaseNodeId();
+        return ResponseEntity.ok()
+                .contentType(GEDCOM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("famille.ged"))
+                .body(output -> treeExportService.writeGedcom(baseNodeId, output));
+    }
+
+    @GetMapping(value = "/ndjson", produces = "application/x-ndjson")
+    @Operation(summary = "Exporter l'arbre en NDJSON", description = "Exporte tous les nœuds puis toutes les relations de l'arbre de l'utilisateur authentifié, un objet JSON par ligne")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fichier NDJSON"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié"),
+        @ApiResponse(responseCode = "400", description = "Nœud de base non trouvé")
+    })
+    public ResponseEntity<StreamingResponseBody> exportNdjson() {
+        Long baseNodeId = treeExportService.getBaseNodeId();
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("famille.ndjson"))
+                .body(output -> treeExportService.writeNdjson(baseNodeId, output));
+    }
+
+    private String attachment(String fileName) {
+        return ContentDisposition.attachment().filename(fileName).build().toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.famillytree.node.controller;
+
+import com.famillytree.node.service.TreeUpdatesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/nodes/updates")
+@RequiredArgsConstructor
+@Tag(name = "Updates", description = "API de suivi en direct des modifications de l'arbre généalogique")
+@SecurityRequirement(name = "bearerAuth")
+public class TreeUpdatesController {
+
+    private final TreeUpdatesService treeUpdatesService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suivre les modifications de l'arbre", description = "Flux SSE des modifications de l'arbre de l'utilisateur authentifié. Le premier événement ('connected') contient le curseur courant ; chaque modification est ensuite envoyée dans un événement 'tree-change' dont l'ID est le curseur à passer à GET /api/nodes/changes.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Flux d'événements ouvert"),
+        @ApiResponse(responseCode = "400", description = "Trop de connexions ouvertes"),
+        @ApiResponse(responseCode = "401", description = "Non authentifié")
+    })
+    public SseEmitter subscribe() {
+        return treeUpdatesService.subscribe();
+    }
+}
@@ -0,0 +1,26 @@
+package com.famillytree.node.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Whether a node is an ancestor of another")
+public class AncestryResponse {
+    @Schema(description = "ID of the presumed ancestor", example = "1")
+    private Long ancestorId;
+
+    @Schema(description = "ID of the presumed descendant", example = "42")
+    private Long descendantId;
+
+    @Schema(description = "Whether ancestorId is an ancestor of descendantId", example = "true")
+    private boolean ancestor;
+
+    @Schema(description = "Number of generations between the two nodes, if related", example = "3")
+    private Integer depth;
+}
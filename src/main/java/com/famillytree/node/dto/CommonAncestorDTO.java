@@ -0,0 +1,17 @@
+package com.famillytree.node.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonAncestorDTO {
+    private NodeDTO node;
+    // Générations entre l'ancêtre et chacun des deux nœuds (0 si l'ancêtre est le nœud lui-même)
+    private int depthFromFirst;
+    private int depthFromSecond;
+}
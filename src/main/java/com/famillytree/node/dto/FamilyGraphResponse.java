@@ -0,0 +1,56 @@
+package com.famillytree.node.dto;
+
+import com.famillytree.node.model.NodeRelation;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Format compact des relations familiales : chaque nœud n'est sérialisé qu'une fois,
+// les relations ne portent que les IDs
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Family relations with each node serialized once and edges as [fromId, toId, type] tuples")
+public class FamilyGraphResponse {
+
+    public static final String MEDIA_TYPE = "application/vnd.familytree.graph+json";
+
+    @Schema(description = "Nodes of the relations, keyed by ID")
+    private Map<Long, NodeDTO> nodes;
+
+    @Schema(description = "Relations as [fromId, toId, type] tuples", example = "[[12, 15, \"CHILD\"]]")
+    private List<Edge> edges;
+
+    public static FamilyGraphResponse from(Collection<NodeRelationDTO> relations) {
+        Map<Long, NodeDTO> nodes = new LinkedHashMap<>();
+        List<Edge> edges = new ArrayList<>(relations.size());
+        for (NodeRelationDTO relation : relations) {
+            nodes.putIfAbsent(relation.getNode1().getId(), relation.getNode1());
+            nodes.putIfAbsent(relation.getNode2().getId(), relation.getNode2());
+            edges.add(new Edge(relation.getNode1().getId(), relation.getNode2().getId(), relation.getRelationType()));
+        }
+        return new FamilyGraphResponse(nodes, edges);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"fromId", "toId", "type"})
+    public static class Edge {
+        private Long fromId;
+        private Long toId;
+        private NodeRelation.RelationType type;
+    }
+}
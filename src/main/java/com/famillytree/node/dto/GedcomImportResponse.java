@@ -0,0 +1,59 @@
+package com.famillytree.node.dto;
+
+import com.famillytree.node.model.GedcomImport;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Status and progress of a GEDCOM import")
+public class GedcomImportResponse {
+    @Schema(description = "ID of the import", example = "1")
+    private Long id;
+
+    @Schema(description = "Name of the uploaded file", example = "famille.ged")
+    private String fileName;
+
+    @Schema(description = "Status of the import", example = "RUNNING")
+    private GedcomImport.Status status;
+
+    @Schema(description = "Number of INDI records in the file (known once the file has been scanned)", example = "50000")
+    private Integer totalIndividuals;
+
+    @Schema(description = "Number of FAM records in the file (known once the file has been scanned)", example = "18000")
+    private Integer totalFamilies;
+
+    @Schema(description = "INDI records processed so far", example = "12000")
+    private int processedIndividuals;
+
+    @Schema(description = "FAM records processed so far", example = "0")
+    private int processedFamilies;
+
+    @Schema(description = "Number of created nodes", example = "11950")
+    private int importedNodes;
+
+    @Schema(description = "Number of created relations", example = "0")
+    private int importedRelations;
+
+    @Schema(description = "Individuals skipped because of a missing name, sex or birth date", example = "50")
+    private int skippedIndividuals;
+
+    @Schema(description = "Relations skipped because one of their individuals was skipped", example = "0")
+    private int skippedRelations;
+
+    @Schema(description = "Error that stopped the import, if any")
+    private String errorMessage;
+
+    @Schema(description = "Date when the import was created", example = "2024-03-15T10:30:00")
+    private LocalDateTime createdDate;
+
+    @Schema(description = "Date of the last progress update", example = "2024-03-15T10:31:12")
+    private LocalDateTime updatedDate;
+}
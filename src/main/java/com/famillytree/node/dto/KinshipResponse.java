@@ -0,0 +1,44 @@
+package com.famillytree.node.dto;
+
+import com.famillytree.node.graph.KinshipPath;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Shortest kinship path between two nodes and the resulting relationship")
+public class KinshipResponse {
+    @Schema(description = "Whether a path was found within the requested depth", example = "true")
+    private boolean related;
+
+    @Schema(description = "What the second node is to the first one", example = "second cousin once removed")
+    private String label;
+
+    @Schema(description = "Generations from the first node up to the closest common ancestor", example = "3")
+    private Integer generationsUp;
+
+    @Schema(description = "Generations from the closest common ancestor down to the second node", example = "4")
+    private Integer generationsDown;
+
+    @Schema(description = "Cousin degree (1 = first cousin), for cousins only", example = "2")
+    private Integer cousinDegree;
+
+    @Schema(description = "Number of generations removed, for cousins only", example = "1")
+    private Integer removed;
+
+    @Schema(description = "Whether the path goes through a marriage", example = "false")
+    private boolean byMarriage;
+
+    @Schema(description = "Nodes of the path, from the first node to the second")
+    private List<NodeDTO> path;
+
+    @Schema(description = "Link between each node of the path and the next one")
+    private List<KinshipPath.Step> steps;
+}
@@ -1,12 +1,14 @@
 package com.famillytree.node.dto;
 
 import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.Node;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -25,4 +27,21 @@ public class NodeDTO {
     private List<String> interests;
     private Long userId;
     private boolean baseNode;
+
+    // Copie détachée de l'entité : la liste des centres d'intérêt est recopiée
+    public static NodeDTO from(Node node) {
+        return NodeDTO.builder()
+                .id(node.getId())
+                .title(node.getTitle())
+                .firstName(node.getFirstName())
+                .lastName(node.getLastName())
+                .birthDate(node.getBirthDate())
+                .gender(node.getGender())
+                .address(node.getAddress())
+                .phone(node.getPhone())
+                .interests(node.getInterests() != null ? new ArrayList<>(node.getInterests()) : null)
+                .userId(node.getUserId())
+                .baseNode(node.isBaseNode())
+                .build();
+    }
 } 
\ No newline at end of file
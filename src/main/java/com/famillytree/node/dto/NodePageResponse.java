@@ -0,0 +1,22 @@
+package com.famillytree.node.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page of nodes, ordered by ID")
+public class NodePageResponse {
+    @Schema(description = "Nodes of the page")
+    private List<NodeDTO> nodes;
+
+    @Schema(description = "Opaque token to pass as 'cursor' to get the next page; null on the last page", example = "MTI0NQ")
+    private String nextCursor;
+}
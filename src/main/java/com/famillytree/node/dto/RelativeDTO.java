@@ -0,0 +1,16 @@
+package com.famillytree.node.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelativeDTO {
+    private NodeDTO node;
+    // Générations entre ce nœud et le nœud de référence
+    private int depth;
+}
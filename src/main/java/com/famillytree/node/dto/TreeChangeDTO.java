@@ -0,0 +1,36 @@
+package com.famillytree.node.dto;
+
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.model.NodeRelation;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One change of the tree")
+public class TreeChangeDTO {
+    @Schema(description = "Kind of change", example = "RELATION_ADDED")
+    private FamilyTreeEvent.Type type;
+
+    @Schema(description = "Created, updated or kept node; first end of an added relation", example = "12")
+    private Long nodeId;
+
+    @Schema(description = "Second end of an added relation, or node removed by a merge", example = "15")
+    private Long relatedNodeId;
+
+    @Schema(description = "Type of the added relation", example = "CHILD")
+    private NodeRelation.RelationType relationType;
+
+    @Schema(description = "Current state of the node for node changes; null if it no longer exists")
+    private NodeDTO node;
+
+    @Schema(description = "Date of the change")
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,28 @@
+package com.famillytree.node.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Changes of the tree since a cursor, in the order they were committed")
+public class TreeChangesResponse {
+    @Schema(description = "Changes after the cursor")
+    private List<TreeChangeDTO> changes;
+
+    @Schema(description = "Cursor to pass as 'since' on the next call", example = "NDI")
+    private String cursor;
+
+    @Schema(description = "Whether more changes are available right away", example = "false")
+    private boolean hasMore;
+
+    @Schema(description = "Whether a change cannot be applied incrementally (bulk import): reload the full tree", example = "false")
+    private boolean resyncRequired;
+}
@@ -0,0 +1,98 @@
+package com.famillytree.node.dto;
+
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.NodeRelation.RelationType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request DTO for importing a whole family tree in one call")
+public class TreeImportRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one node is required")
+    @Schema(description = "Nodes to create, each identified by a client-side reference", required = true)
+    private List<ImportedNode> nodes;
+
+    @Valid
+    @Schema(description = "Relations between imported nodes and/or existing nodes")
+    private List<ImportedRelation> relations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportedNode {
+        @NotBlank(message = "Reference is required")
+        @Schema(description = "Temporary client-side identifier of the node", example = "p1", required = true)
+        private String ref;
+
+        @Schema(description = "Title of the person (optional)", example = "Famille Talla")
+        private String title;
+
+        @NotNull(message = "First name is required")
+        @Schema(description = "First name of the person", example = "John", required = true)
+        private String firstName;
+
+        @NotNull(message = "Last name is required")
+        @Schema(description = "Last name of the person", example = "Doe", required = true)
+        private String lastName;
+
+        @NotNull(message = "Birth date is required")
+        @Past(message = "Birth date must be in the past")
+        @Schema(description = "Birth date of the person", example = "1990-01-01", required = true)
+        private LocalDate birthDate;
+
+        @NotNull(message = "Gender is required")
+        @Schema(description = "Gender of the person", example = "MALE", required = true, allowableValues = {"MALE", "FEMALE"})
+        private Gender gender;
+
+        @Schema(description = "Address of the person", example = "123 Main St, City")
+        private String address;
+
+        @Schema(description = "Phone number of the person", example = "+33612345678")
+        private String phone;
+
+        @Schema(description = "List of interests of the person", example = "[\"Reading\", \"Sports\"]")
+        private List<String> interests;
+
+        @Schema(description = "Indique si le nœud est le nœud de base de l'utilisateur", example = "false")
+        private Boolean baseNode;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportedRelation {
+        @Schema(description = "Reference of an imported node (first end of the relation)", example = "p1")
+        private String node1Ref;
+
+        @Schema(description = "ID of an existing node, used when node1Ref is not set", example = "1")
+        private Long node1Id;
+
+        @Schema(description = "Reference of an imported node (second end of the relation)", example = "p2")
+        private String node2Ref;
+
+        @Schema(description = "ID of an existing node, used when node2Ref is not set", example = "2")
+        private Long node2Id;
+
+        @NotNull(message = "Relation type is required")
+        @Schema(description = "Type of relation from node1 to node2", example = "CHILD", required = true)
+        private RelationType relationType;
+    }
+}
@@ -0,0 +1,25 @@
+package com.famillytree.node.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a family tree import")
+public class TreeImportResponse {
+    @Schema(description = "ID assigned to each imported node, by client-side reference")
+    private Map<String, Long> nodeIds;
+
+    @Schema(description = "Number of created nodes", example = "120")
+    private int nodeCount;
+
+    @Schema(description = "Number of created relations", example = "180")
+    private int relationCount;
+}
@@ -0,0 +1,78 @@
+package com.famillytree.node.event;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Mutation d'un arbre, publiée dans la transaction qui l'a produite
+@Getter
+@AllArgsConstructor
+public class FamilyTreeEvent {
+
+    private final Type type;
+    private final NodeDTO node;
+    private final NodeRelationDTO relation;
+    private final Long removedNodeId;
+    // Import en bloc : propriétaire et nœuds créés ou reliés
+    private final Long userId;
+    private final List<Long> importedNodeIds;
+    // Nœuds existants auxquels l'import a été rattaché
+    private final List<Long> linkedNodeIds;
+
+    public static FamilyTreeEvent nodeCreated(NodeDTO node) {
+        return new FamilyTreeEvent(Type.NODE_CREATED, node, null, null, null, null, null);
+    }
+
+    public static FamilyTreeEvent nodeUpdated(NodeDTO node) {
+        return new FamilyTreeEvent(Type.NODE_UPDATED, node, null, null, null, null, null);
+    }
+
+    // Le nœud "removedNodeId" a été fusionné dans "node" puis supprimé
+    public static FamilyTreeEvent nodeMerged(NodeDTO node, Long removedNodeId) {
+        return new FamilyTreeEvent(Type.NODE_MERGED, node, null, removedNodeId, null, null, null);
+    }
+
+    public static FamilyTreeEvent relationAdded(NodeRelationDTO relation) {
+        return new FamilyTreeEvent(Type.RELATION_ADDED, null, relation, null, null, null, null);
+    }
+
+    // Arbre importé en une transaction : un seul événement plutôt qu'un par nœud et par relation
+    public static FamilyTreeEvent treeImported(Long userId, List<Long> nodeIds) {
+        return treeImported(userId, nodeIds, List.of());
+    }
+
+    public static FamilyTreeEvent treeImported(Long userId, List<Long> nodeIds, List<Long> linkedNodeIds) {
+        return new FamilyTreeEvent(Type.TREE_IMPORTED, null, null, null, userId, nodeIds, linkedNodeIds);
+    }
+
+    // IDs de tous les nœuds touchés par la mutation
+    public List<Long> getNodeIds() {
+        List<Long> nodeIds = new ArrayList<>(2);
+        if (node != null) {
+            nodeIds.add(node.getId());
+        }
+        if (relation != null) {
+            nodeIds.add(relation.getNode1().getId());
+            nodeIds.add(relation.getNode2().getId());
+        }
+        if (removedNodeId != null) {
+            nodeIds.add(removedNodeId);
+        }
+        if (importedNodeIds != null) {
+            nodeIds.addAll(importedNodeIds);
+        }
+        return nodeIds;
+    }
+
+    public enum Type {
+        NODE_CREATED,
+        NODE_UPDATED,
+        NODE_MERGED,
+        RELATION_ADDED,
+        TREE_IMPORTED
+    }
+}
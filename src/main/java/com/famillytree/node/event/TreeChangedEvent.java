@@ -0,0 +1,15 @@
+package com.famillytree.node.event;
+
+import com.famillytree.node.dto.TreeChangeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Modification ajoutée au journal de l'arbre d'un utilisateur, publiée dans la transaction de l'écriture
+@Getter
+@AllArgsConstructor
+public class TreeChangedEvent {
+
+    private final Long userId;
+    private final long version;
+    private final TreeChangeDTO change;
+}
@@ -42,6 +42,14 @@ public class NodeException extends RuntimeException {
         );
     }
 
+    public static NodeException importNotFound(Long id) {
+        return new NodeException(
+            "Import not found with id: " + id,
+            "NODE_004",
+            HttpStatus.NOT_FOUND
+        );
+    }
+
     public static NodeException unauthorized() {
         return new NodeException(
             "You don't have permission to perform this action",
@@ -67,4 +75,29 @@ public class NodeException extends RuntimeException {
             details
         );
     }
-} 
\ No newline at end of file
+
+    public static NodeException importFileUnavailable(Long id) {
+        return new NodeException(
+            "Import file not available with id: " + id,
+            "NODE_006",
+            HttpStatus.CONFLICT
+        );
+    }
+
+    public static NodeException importRejected(Long id) {
+        return new NodeException(
+            "Import could not be scheduled with id: " + id,
+            "NODE_007",
+            HttpStatus.SERVICE_UNAVAILABLE
+        );
+    }
+
+    public static NodeException queryBudgetExceeded(String details) {
+        return new NodeException(
+            "Query budget exceeded",
+            "NODE_005",
+            HttpStatus.INTERNAL_SERVER_ERROR,
+            details
+        );
+    }
+}
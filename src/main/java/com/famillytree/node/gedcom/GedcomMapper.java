@@ -0,0 +1,139 @@
+package com.famillytree.node.gedcom;
+
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.Node;
+import org.springframework.util.StringUtils;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Conversion des enregistrements INDI en nœuds
+public final class GedcomMapper {
+
+    private static final List<String> MONTHS =
+            List.of("JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC");
+    private static final Pattern DATE = Pattern.compile("^(?:(\\d{1,2}) )?(?:([A-Z]{3}) )?(\\d{3,4})(?:/\\d{1,2})?$");
+    private static final Pattern NAME = Pattern.compile("^([^/]*)(?:/([^/]*)/?)?(.*)$");
+
+    private GedcomMapper() {
+    }
+
+    // Retourne null si l'individu ne peut pas devenir un nœud (nom, sexe ou date de naissance absents)
+    public static Node toNode(GedcomRecord individual, Long userId) {
+        Gender gender = toGender(individual.value("SEX"));
+        LocalDate birthDate = toDate(individual.value("BIRT", "DATE"));
+        String[] name = toName(individual);
+        if (gender == null || birthDate == null || name == null) {
+            return null;
+        }
+
+        String address = individual.value("RESI", "ADDR");
+        return Node.builder()
+                .title(individual.value("TITL"))
+                .firstName(name[0])
+                .lastName(name[1])
+                .birthDate(birthDate)
+                .gender(gender)
+                .address(address != null ? address : individual.value("ADDR"))
+                .phone(individual.value("PHON") != null ? individual.value("PHON") : individual.value("RESI", "PHON"))
+                .interests(toInterests(individual))
+                .userId(userId)
+                .baseNode(false)
+                .build();
+    }
+
+    // "@I12@" -> "I12"
+    public static String pointer(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.length() > 2 && trimmed.startsWith("@") && trimmed.endsWith("@")
+                ? trimmed.substring(1, trimmed.length() - 1)
+                : null;
+    }
+
+    static Gender toGender(String sex) {
+        if (sex == null) {
+            return null;
+        }
+        return switch (sex.trim().toUpperCase(Locale.ROOT)) {
+            case "M" -> Gender.MALE;
+            case "F" -> Gender.FEMALE;
+            default -> null;
+        };
+    }
+
+    // Dates grégoriennes seulement ; une date approximative ou partielle prend le premier jour connu
+    static LocalDate toDate(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        String date = value.trim().toUpperCase(Locale.ROOT).replaceAll("\\(.*\\)", "").trim();
+        if (date.startsWith("@#")) {
+            if (!date.startsWith("@#DGREGORIAN@")) {
+                return null;
+            }
+            date = date.substring("@#DGREGORIAN@".length()).trim();
+        }
+        date = date.replaceFirst("^(ABT|EST|CAL|BEF|AFT|INT|BET|FROM|TO) ", "")
+                .replaceFirst(" (AND|TO) .*$", "")
+                .trim();
+
+        Matcher matcher = DATE.matcher(date);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int month = matcher.group(2) != null ? MONTHS.indexOf(matcher.group(2)) + 1 : 1;
+        if (month == 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(matcher.group(3)), month,
+                    matcher.group(1) != null ? Integer.parseInt(matcher.group(1)) : 1);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // Tag personnalisé _INTEREST écrit par GedcomWriter : un centre d'intérêt par ligne
+    private static List<String> toInterests(GedcomRecord individual) {
+        List<String> interests = new ArrayList<>();
+        for (GedcomRecord interest : individual.children("_INTEREST")) {
+            if (StringUtils.hasText(interest.getValue())) {
+                interests.add(interest.getValue().trim());
+            }
+        }
+        return interests.isEmpty() ? null : interests;
+    }
+
+    // Prénom et nom : GIVN/SURN si présents, sinon "Prénom /Nom/"
+    private static String[] toName(GedcomRecord individual) {
+        GedcomRecord name = individual.child("NAME");
+        if (name == null) {
+            return null;
+        }
+        String firstName = name.value("GIVN");
+        String lastName = name.value("SURN");
+        if (name.getValue() != null) {
+            Matcher matcher = NAME.matcher(name.getValue().trim());
+            if (matcher.matches()) {
+                if (firstName == null) {
+                    firstName = matcher.group(1).trim();
+                }
+                if (lastName == null && matcher.group(2) != null) {
+                    lastName = matcher.group(2).trim();
+                }
+            }
+        }
+        if (!StringUtils.hasText(firstName) || !StringUtils.hasText(lastName)) {
+            return null;
+        }
+        return new String[]{firstName, lastName};
+    }
+}
@@ -0,0 +1,96 @@
+package com.famillytree.node.gedcom;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lecture séquentielle d'un fichier GEDCOM 5.5.1, un enregistrement de niveau 0 à la fois :
+// seul l'enregistrement courant est gardé en mémoire
+public class GedcomReader implements Closeable {
+
+    private static final Pattern LINE = Pattern.compile("^\\s*(\\d+)\\s+(?:(@[^@]+@)\\s+)?(\\S+)(?: (.*))?$");
+
+    private final BufferedReader reader;
+    private GedcomRecord pending;
+    private int lineNumber;
+
+    public GedcomReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    // Prochain enregistrement de niveau 0, ou null en fin de fichier
+    public GedcomRecord next() throws IOException {
+        GedcomRecord record = pending != null ? pending : readLine();
+        pending = null;
+        if (record == null) {
+            return null;
+        }
+
+        Deque<GedcomRecord> stack = new ArrayDeque<>();
+        stack.push(record);
+        GedcomRecord line;
+        while ((line = readLine()) != null) {
+            if (line.getLevel() == 0) {
+                pending = line;
+                break;
+            }
+            while (stack.size() > 1 && stack.peek().getLevel() >= line.getLevel()) {
+                stack.pop();
+            }
+            GedcomRecord parent = stack.peek();
+            if ("CONC".equals(line.getTag()) || "CONT".equals(line.getTag())) {
+                parent.appendValue(line.getValue() != null ? line.getValue() : "", "CONT".equals(line.getTag()));
+                continue;
+            }
+            parent.addChild(line);
+            stack.push(line);
+        }
+        return record;
+    }
+
+    // Prochain enregistrement portant l'un des tags donnés (ex. INDI, FAM)
+    public GedcomRecord next(String tag) throws IOException {
+        GedcomRecord record;
+        while ((record = next()) != null) {
+            if (tag.equals(record.getTag())) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private GedcomRecord readLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            Matcher matcher = LINE.matcher(line);
+            if (!matcher.matches()) {
+                throw new IOException("Ligne GEDCOM invalide (" + lineNumber + ") : " + line);
+            }
+            String xref = matcher.group(2);
+            return new GedcomRecord(Integer.parseInt(matcher.group(1)),
+                    xref != null ? xref.substring(1, xref.length() - 1) : null,
+                    matcher.group(3),
+                    matcher.group(4));
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
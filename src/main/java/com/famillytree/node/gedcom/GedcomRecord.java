@@ -0,0 +1,65 @@
+package com.famillytree.node.gedcom;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Ligne GEDCOM et ses sous-lignes ; un enregistrement de niveau 0 (INDI, FAM...) est la racine
+@Getter
+public class GedcomRecord {
+
+    private final int level;
+    private final String xref;
+    private final String tag;
+    private String value;
+    private final List<GedcomRecord> children = new ArrayList<>();
+
+    public GedcomRecord(int level, String xref, String tag, String value) {
+        this.level = level;
+        this.xref = xref;
+        this.tag = tag;
+        this.value = value;
+    }
+
+    public GedcomRecord child(String tag) {
+        for (GedcomRecord child : children) {
+            if (child.tag.equals(tag)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    public List<GedcomRecord> children(String tag) {
+        List<GedcomRecord> matching = new ArrayList<>();
+        for (GedcomRecord child : children) {
+            if (child.tag.equals(tag)) {
+                matching.add(child);
+            }
+        }
+        return matching;
+    }
+
+    // Valeur d'une sous-ligne, par chemin de tags (ex. "BIRT", "DATE")
+    public String value(String... path) {
+        GedcomRecord current = this;
+        for (String tag : path) {
+            current = current.child(tag);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current.value;
+    }
+
+    void addChild(GedcomRecord child) {
+        children.add(child);
+    }
+
+    // CONC/CONT : suite d'une valeur trop longue pour une seule ligne
+    void appendValue(String text, boolean newLine) {
+        String base = value != null ? value : "";
+        value = newLine ? base + "\n" + text : base + text;
+    }
+}
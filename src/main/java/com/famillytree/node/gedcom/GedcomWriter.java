@@ -0,0 +1,107 @@
+package com.famillytree.node.gedcom;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.model.Gender;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+// Écriture séquentielle d'un fichier GEDCOM 5.5.1 en UTF-8, enregistrement par enregistrement
+public class GedcomWriter {
+
+    private static final String[] MONTHS =
+            {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    // Longueur maximale d'une valeur avant découpage en lignes CONC
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private final BufferedWriter writer;
+
+    public GedcomWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public void writeHeader() throws IOException {
+        line(0, "HEAD", null);
+        line(1, "SOUR", "FAMILLY_TREE");
+        line(1, "GEDC", null);
+        line(2, "VERS", "5.5.1");
+        line(2, "FORM", "LINEAGE-LINKED");
+        line(1, "CHAR", "UTF-8");
+    }
+
+    public void writeIndividual(NodeDTO node) throws IOException {
+        writer.write("0 @I" + node.getId() + "@ INDI\n");
+        line(1, "NAME", node.getFirstName() + " /" + node.getLastName() + "/");
+        line(2, "GIVN", node.getFirstName());
+        line(2, "SURN", node.getLastName());
+        if (node.getGender() != null) {
+            line(1, "SEX", node.getGender() == Gender.MALE ? "M" : "F");
+        }
+        if (node.getBirthDate() != null) {
+            line(1, "BIRT", null);
+            line(2, "DATE", formatDate(node.getBirthDate()));
+        }
+        if (node.getTitle() != null) {
+            line(1, "TITL", node.getTitle());
+        }
+        if (node.getAddress() != null) {
+            line(1, "RESI", null);
+            line(2, "ADDR", node.getAddress());
+        }
+        if (node.getPhone() != null) {
+            line(1, "PHON", node.getPhone());
+        }
+        if (node.getInterests() != null) {
+            // Pas d'équivalent standard : tag personnalisé, ignoré par les logiciels qui ne le connaissent pas
+            for (String interest : node.getInterests()) {
+                line(1, "_INTEREST", interest);
+            }
+        }
+    }
+
+    // Famille : un couple (ou un parent seul) et ses enfants ; husbandId/wifeId peuvent être null
+    public void writeFamily(long familyId, Long husbandId, Long wifeId, List<Long> childIds) throws IOException {
+        writer.write("0 @F" + familyId + "@ FAM\n");
+        if (husbandId != null) {
+            line(1, "HUSB", "@I" + husbandId + "@");
+        }
+        if (wifeId != null) {
+            line(1, "WIFE", "@I" + wifeId + "@");
+        }
+        for (Long childId : childIds) {
+            line(1, "CHIL", "@I" + childId + "@");
+        }
+    }
+
+    public void writeTrailer() throws IOException {
+        line(0, "TRLR", null);
+        writer.flush();
+    }
+
+    private void line(int level, String tag, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            writer.write(level + " " + tag + "\n");
+            return;
+        }
+        // Les retours à la ligne deviennent des lignes CONT, les valeurs trop longues des lignes CONC
+        String[] parts = value.split("\r?\n", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+            int end = Math.min(part.length(), MAX_VALUE_LENGTH);
+            String head = i == 0 ? level + " " + tag : (level + 1) + " CONT";
+            writer.write(part.isEmpty() ? head + "\n" : head + " " + part.substring(0, end) + "\n");
+            for (int from = end; from < part.length(); from += MAX_VALUE_LENGTH) {
+                writer.write((level + 1) + " CONC " + part.substring(from, Math.min(from + MAX_VALUE_LENGTH, part.length())) + "\n");
+            }
+        }
+    }
+
+    private static String formatDate(LocalDate date) {
+        return date.getDayOfMonth() + " " + MONTHS[date.getMonthValue() - 1] + " " + date.getYear();
+    }
+}
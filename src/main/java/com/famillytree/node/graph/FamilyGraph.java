@@ -0,0 +1,465 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.model.NodeRelation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Composante connexe d'un arbre généalogique chargée en mémoire.
+// Les nœuds sont indexés par entier et les relations CHILD/SPOUSE stockées en tableaux
+// d'adjacence : les parcours ne touchent jamais la base.
+public class FamilyGraph {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> indexById;
+    // Utilisateurs propriétaires d'au moins un nœud de la composante
+    private final Set<Long> ownerIds = new HashSet<>();
+
+    private long[] ids;
+    private NodeDTO[] nodes;
+    private int[][] parents;
+    private int[][] children;
+    private int[][] spouses;    // relations SPOUSE où le nœud est node1
+    private int[][] spousedBy;  // relations SPOUSE où le nœud est node2
+    private int size;
+
+    public FamilyGraph(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        this.indexById = new HashMap<>(capacity * 2);
+        this.ids = new long[capacity];
+        this.nodes = new NodeDTO[capacity];
+        this.parents = new int[capacity][];
+        this.children = new int[capacity][];
+        this.spouses = new int[capacity][];
+        this.spousedBy = new int[capacity][];
+    }
+
+    // ---- Mutations ----
+
+    // Ajoute ou remplace un nœud
+    public void putNode(NodeDTO node) {
+        write(() -> {
+            if (node.getUserId() != null) {
+                ownerIds.add(node.getUserId());
+            }
+            Integer index = indexById.get(node.getId());
+            if (index != null) {
+                nodes[index] = node;
+                return null;
+            }
+            ensureCapacity(size + 1);
+            ids[size] = node.getId();
+            nodes[size] = node;
+            parents[size] = NO_EDGES;
+            children[size] = NO_EDGES;
+            spouses[size] = NO_EDGES;
+            spousedBy[size] = NO_EDGES;
+            indexById.put(node.getId(), size);
+            size++;
+            return null;
+        });
+    }
+
+    // Ajoute une relation entre deux nœuds déjà présents ; retourne false si l'un d'eux est absent
+    public boolean addRelation(long node1Id, long node2Id, NodeRelation.RelationType relationType) {
+        return write(() -> {
+            Integer from = indexById.get(node1Id);
+            Integer to = indexById.get(node2Id);
+            if (from == null || to == null) {
+                return false;
+            }
+            switch (relationType) {
+                case CHILD -> {
+                    children[from] = append(children[from], to);
+                    parents[to] = append(parents[to], from);
+                }
+                case SPOUSE -> {
+                    spouses[from] = append(spouses[from], to);
+                    spousedBy[to] = append(spousedBy[to], from);
+                }
+                default -> {
+                    // SIBLING et PARENT ne sont pas utilisées par les parcours
+                }
+            }
+            return true;
+        });
+    }
+
+    // Copie tous les nœuds et relations d'une autre composante (fusion de deux arbres)
+    public void absorb(FamilyGraph other) {
+        List<NodeDTO> otherNodes = other.getNodes();
+        List<long[]> otherRelations = other.read(() -> {
+            List<long[]> relations = new ArrayList<>();
+            for (int i = 0; i < other.size; i++) {
+                for (int child : other.children[i]) {
+                    relations.add(new long[]{other.ids[i], other.ids[child], NodeRelation.RelationType.CHILD.ordinal()});
+                }
+                for (int spouse : other.spouses[i]) {
+                    relations.add(new long[]{other.ids[i], other.ids[spouse], NodeRelation.RelationType.SPOUSE.ordinal()});
+                }
+            }
+            return relations;
+        });
+        otherNodes.forEach(this::putNode);
+        NodeRelation.RelationType[] types = NodeRelation.RelationType.values();
+        otherRelations.forEach(relation -> addRelation(relation[0], relation[1], types[(int) relation[2]]));
+    }
+
+    // ---- Lectures ----
+
+    public boolean contains(long nodeId) {
+        return read(() -> indexById.containsKey(nodeId));
+    }
+
+    public int size() {
+        return read(() -> size);
+    }
+
+    public long[] getNodeIds() {
+        return read(() -> Arrays.copyOf(ids, size));
+    }
+
+    public Set<Long> getOwnerIds() {
+        return read(() -> new HashSet<>(ownerIds));
+    }
+
+    public List<NodeDTO> getNodes() {
+        return read(() -> new ArrayList<>(Arrays.asList(nodes).subList(0, size)));
+    }
+
+    public Set<NodeRelationDTO> getAncestorRelations(long nodeId) {
+        return read(() -> {
+            Set<NodeRelationDTO> relations = new HashSet<>();
+            collectLineage(new int[]{indexOf(nodeId)}, true, Integer.MAX_VALUE, relations);
+            return relations;
+        });
+    }
+
+    public Set<NodeRelationDTO> getDescendantRelations(long nodeId) {
+        return read(() -> {
+            Set<NodeRelationDTO> relations = new HashSet<>();
+            collectLineage(new int[]{indexOf(nodeId)}, false, Integer.MAX_VALUE, relations);
+            return relations;
+        });
+    }
+
+    public Set<NodeRelationDTO> getUncleAndAuntRelations(long nodeId) {
+        return read(() -> {
+            Set<NodeRelationDTO> relations = new HashSet<>();
+            collectUncleAndAuntRelations(indexOf(nodeId), relations);
+            return relations;
+        });
+    }
+
+    public Set<NodeRelationDTO> getCousinRelations(long nodeId) {
+        return read(() -> {
+            Set<NodeRelationDTO> relations = new HashSet<>();
+            collectLineage(collectUncleAndAuntRelations(indexOf(nodeId), new HashSet<>()), false, Integer.MAX_VALUE, relations);
+            return relations;
+        });
+    }
+
+    public Set<NodeRelationDTO> getFamilyRelations(long nodeId) {
+        return getFamilyRelations(nodeId, FamilyWindow.UNBOUNDED);
+    }
+
+    // Relations du nœud limitées à la fenêtre : seuls les types demandés sont parcourus
+    // et chaque parcours s'arrête à la dernière génération de la fenêtre
+    public Set<NodeRelationDTO> getFamilyRelations(long nodeId, FamilyWindow window) {
+        return read(() -> {
+            int index = indexOf(nodeId);
+            Set<NodeRelationDTO> relations = new HashSet<>();
+
+            if (window.includes(FamilyWindow.Kind.ANCESTORS)) {
+                collectLineage(new int[]{index}, true, window.getGenerationsUp(), relations);
+            }
+            if (window.includes(FamilyWindow.Kind.DESCENDANTS)) {
+                collectLineage(new int[]{index}, false, window.getGenerationsDown(), relations);
+            }
+            // Oncles/tantes (génération +1) puis cousins : les descendants des frères et soeurs des parents,
+            // de la génération du nœud (0) jusqu'à -generationsDown
+            boolean uncles = window.includes(FamilyWindow.Kind.UNCLES_AUNTS);
+            boolean cousins = window.includes(FamilyWindow.Kind.COUSINS);
+            if ((uncles || cousins) && window.getGenerationsUp() >= 1) {
+                int[] unclesAndAunts = collectUncleAndAuntRelations(index, uncles ? relations : new HashSet<>());
+                if (cousins) {
+                    collectLineage(unclesAndAunts, false, saturatedAdd(window.getGenerationsDown(), 1), relations);
+                }
+            }
+
+            if (window.includes(FamilyWindow.Kind.SPOUSES)) {
+                for (int spouse : spouses[index]) {
+                    relations.add(relation(index, spouse, NodeRelation.RelationType.SPOUSE));
+                }
+                for (int spouse : spousedBy[index]) {
+                    relations.add(relation(spouse, index, NodeRelation.RelationType.SPOUSE));
+                }
+            }
+            return relations;
+        });
+    }
+
+    // Générations couvertes autour du nœud : de l'ascendant le plus éloigné au descendant le plus éloigné
+    public int getGenerationDepth(long nodeId) {
+        return read(() -> {
+            int index = indexOf(nodeId);
+            return lineageDepth(index, true) + 1 + lineageDepth(index, false);
+        });
+    }
+
+    // Plus court chemin de parenté entre deux nœuds (relations CHILD dans les deux sens et SPOUSE),
+    // par parcours en largeur bidirectionnel ; null si aucun chemin de longueur <= maxDepth
+    public KinshipPath findKinshipPath(long fromId, long toId, int maxDepth) {
+        return read(() -> {
+            int from = indexOf(fromId);
+            int to = indexOf(toId);
+            if (from == to) {
+                return new KinshipPath(List.of(nodes[from]), List.of());
+            }
+
+            int[] distanceFrom = new int[size];
+            int[] distanceTo = new int[size];
+            Arrays.fill(distanceFrom, -1);
+            Arrays.fill(distanceTo, -1);
+            // Prédécesseur de chaque nœud atteint, et pas (dans le sens from -> to) qui le relie à lui
+            int[] previousFrom = new int[size];
+            int[] previousTo = new int[size];
+            KinshipPath.Step[] stepFrom = new KinshipPath.Step[size];
+            KinshipPath.Step[] stepTo = new KinshipPath.Step[size];
+            distanceFrom[from] = 0;
+            distanceTo[to] = 0;
+
+            int[] frontierFrom = {from};
+            int[] frontierTo = {to};
+            int depthFrom = 0;
+            int depthTo = 0;
+            int meeting = -1;
+            int best = Integer.MAX_VALUE;
+
+            while (frontierFrom.length > 0 && frontierTo.length > 0 && depthFrom + depthTo < maxDepth) {
+                // On étend toujours la frontière la plus petite, un niveau complet à la fois
+                boolean forward = frontierFrom.length <= frontierTo.length;
+                int[] frontier = forward ? frontierFrom : frontierTo;
+                int[] distance = forward ? distanceFrom : distanceTo;
+                int[] otherDistance = forward ? distanceTo : distanceFrom;
+                int[] previous = forward ? previousFrom : previousTo;
+                KinshipPath.Step[] step = forward ? stepFrom : stepTo;
+
+                int[] next = new int[size];
+                int count = 0;
+                for (int current : frontier) {
+                    for (int kind = 0; kind < 4; kind++) {
+                        int[] edges = kind == 0 ? parents[current]
+                                : kind == 1 ? children[current]
+                                : kind == 2 ? spouses[current]
+                                : spousedBy[current];
+                        for (int neighbour : edges) {
+                            if (distance[neighbour] >= 0) {
+                                continue;
+                            }
+                            distance[neighbour] = distance[current] + 1;
+                            previous[neighbour] = current;
+                            step[neighbour] = forward
+                                    ? (kind == 0 ? KinshipPath.Step.PARENT : kind == 1 ? KinshipPath.Step.CHILD : KinshipPath.Step.SPOUSE)
+                                    : (kind == 0 ? KinshipPath.Step.CHILD : kind == 1 ? KinshipPath.Step.PARENT : KinshipPath.Step.SPOUSE);
+                            next[count++] = neighbour;
+                            if (otherDistance[neighbour] >= 0 && distance[neighbour] + otherDistance[neighbour] < best) {
+                                best = distance[neighbour] + otherDistance[neighbour];
+                                meeting = neighbour;
+                            }
+                        }
+                    }
+                }
+
+                if (forward) {
+                    frontierFrom = Arrays.copyOf(next, count);
+                    depthFrom++;
+                } else {
+                    frontierTo = Arrays.copyOf(next, count);
+                    depthTo++;
+                }
+                if (meeting >= 0) {
+                    break;
+                }
+            }
+
+            if (meeting < 0 || best > maxDepth) {
+                return null;
+            }
+            return buildPath(meeting, previousFrom, stepFrom, from, previousTo, stepTo, to);
+        });
+    }
+
+    // ---- Parcours ----
+
+    // Chemin from -> rencontre (remonté à l'envers) puis rencontre -> to
+    private KinshipPath buildPath(int meeting, int[] previousFrom, KinshipPath.Step[] stepFrom, int from,
+                                  int[] previousTo, KinshipPath.Step[] stepTo, int to) {
+        List<NodeDTO> pathNodes = new ArrayList<>();
+        List<KinshipPath.Step> steps = new ArrayList<>();
+        for (int current = meeting; current != from; current = previousFrom[current]) {
+            pathNodes.add(nodes[current]);
+            steps.add(stepFrom[current]);
+        }
+        pathNodes.add(nodes[from]);
+        Collections.reverse(pathNodes);
+        Collections.reverse(steps);
+        for (int current = meeting; current != to; current = previousTo[current]) {
+            pathNodes.add(nodes[previousTo[current]]);
+            steps.add(stepTo[current]);
+        }
+        return new KinshipPath(pathNodes, steps);
+    }
+
+    // Parcours en largeur des relations CHILD, vers les ascendants (upward) ou les descendants,
+    // arrêté à maxDepth générations des racines
+    private void collectLineage(int[] roots, boolean upward, int maxDepth, Set<NodeRelationDTO> relations) {
+        int[] depth = new int[size];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        for (int root : roots) {
+            if (depth[root] < 0) {
+                depth[root] = 0;
+                queue[tail++] = root;
+            }
+        }
+
+        while (head < tail) {
+            int current = queue[head++];
+            if (depth[current] >= maxDepth) {
+                continue;
+            }
+            for (int next : upward ? parents[current] : children[current]) {
+                relations.add(upward
+                        ? relation(next, current, NodeRelation.RelationType.CHILD)
+                        : relation(current, next, NodeRelation.RelationType.CHILD));
+                if (depth[next] < 0) {
+                    depth[next] = depth[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    // Nombre de générations de la lignée, vers les ascendants (upward) ou les descendants
+    private int lineageDepth(int root, boolean upward) {
+        int[] depth = new int[size];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        depth[root] = 0;
+        queue[tail++] = root;
+        int max = 0;
+        while (head < tail) {
+            int current = queue[head++];
+            max = Math.max(max, depth[current]);
+            for (int next : upward ? parents[current] : children[current]) {
+                if (depth[next] < 0) {
+                    depth[next] = depth[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return max;
+    }
+
+    // Ajoute les relations SIBLING parent -> frère/soeur du parent et retourne les oncles/tantes
+    private int[] collectUncleAndAuntRelations(int index, Set<NodeRelationDTO> relations) {
+        boolean[] seen = new boolean[size];
+        int[] unclesAndAunts = new int[size];
+        int count = 0;
+        for (int parent : parents[index]) {
+            for (int grandParent : parents[parent]) {
+                for (int sibling : children[grandParent]) {
+                    if (sibling == parent) {
+                        continue;
+                    }
+                    relations.add(relation(parent, sibling, NodeRelation.RelationType.SIBLING));
+                    if (!seen[sibling]) {
+                        seen[sibling] = true;
+                        unclesAndAunts[count++] = sibling;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(unclesAndAunts, count);
+    }
+
+    private NodeRelationDTO relation(int node1, int node2, NodeRelation.RelationType relationType) {
+        return NodeRelationDTO.builder()
+                .node1(nodes[node1])
+                .node2(nodes[node2])
+                .relationType(relationType)
+                .build();
+    }
+
+    private int indexOf(long nodeId) {
+        Integer index = indexById.get(nodeId);
+        if (index == null) {
+            throw new IllegalArgumentException("Node " + nodeId + " is not part of this family graph");
+        }
+        return index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        nodes = Arrays.copyOf(nodes, newCapacity);
+        parents = Arrays.copyOf(parents, newCapacity);
+        children = Arrays.copyOf(children, newCapacity);
+        spouses = Arrays.copyOf(spouses, newCapacity);
+        spousedBy = Arrays.copyOf(spousedBy, newCapacity);
+    }
+
+    private static int saturatedAdd(int value, int increment) {
+        return value > Integer.MAX_VALUE - increment ? Integer.MAX_VALUE : value + increment;
+    }
+
+    private static int[] append(int[] edges, int index) {
+        for (int edge : edges) {
+            if (edge == index) {
+                return edges;
+            }
+        }
+        int[] extended = Arrays.copyOf(edges, edges.length + 1);
+        extended[edges.length] = index;
+        return extended;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.model.NodeRelation;
+import com.famillytree.node.repository.NodeRelationRepository;
+import com.famillytree.node.repository.NodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Graphes familiaux résidents, un par composante connexe, indexés par ID de nœud.
+// Un arbre froid est chargé en bloc ; les écritures validées sont ensuite appliquées en place.
+@Component
+@RequiredArgsConstructor
+public class FamilyGraphRegistry {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
+    private final NodeRepository nodeRepository;
+    private final NodeRelationRepository nodeRelationRepository;
+
+    @Value("${familytree.graph.max-resident-nodes:500000}")
+    private int maxResidentNodes;
+
+    // Verrou explicite plutôt que synchronized : un thread virtuel en attente ne bloque pas son thread porteur
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, FamilyGraph> graphsByNodeId = new ConcurrentHashMap<>();
+    // Ordre d'accès des graphes résidents, pour l'éviction LRU
+    private final LinkedHashMap<FamilyGraph, Boolean> residentGraphs = new LinkedHashMap<>(16, 0.75f, true);
+    private int residentNodes;
+    // Incrémenté à chaque modification : un chargement concurrent d'une écriture n'est pas conservé
+    private long modificationCount;
+
+    @Transactional(readOnly = true)
+    public FamilyGraph getGraph(Long nodeId) {
+        FamilyGraph graph = graphsByNodeId.get(nodeId);
+        if (graph != null) {
+            touch(graph);
+            return graph;
+        }
+
+        long loadedAt = locked(() -> modificationCount);
+        return register(load(nodeId), loadedAt);
+    }
+
+    // Propriétaires des composantes contenant ces nœuds : lus sur les graphes résidents,
+    // sinon en base (sans charger ni enregistrer de graphe)
+    @Transactional(readOnly = true)
+    public Set<Long> findOwnerIds(Collection<Long> nodeIds) {
+        Set<Long> ownerIds = new HashSet<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long nodeId : nodeIds) {
+            FamilyGraph graph = graphsByNodeId.get(nodeId);
+            if (graph != null) {
+                ownerIds.addAll(graph.getOwnerIds());
+            } else {
+                missing.add(nodeId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            ownerIds.addAll(nodeRepository.findComponentOwnerIds(missing));
+        }
+        return ownerIds;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFamilyTreeEvent(FamilyTreeEvent event) {
+        lock.lock();
+        try {
+            modificationCount++;
+            switch (event.getType()) {
+                case NODE_CREATED -> {
+                    // Un nouveau nœud forme sa propre composante jusqu'à ce qu'une relation le rattache
+                    FamilyGraph graph = new FamilyGraph(1);
+                    graph.putNode(event.getNode());
+                    add(graph);
+                }
+                case NODE_UPDATED -> {
+                    FamilyGraph graph = graphsByNodeId.get(event.getNode().getId());
+                    if (graph != null) {
+                        graph.putNode(event.getNode());
+                    }
+                }
+                case NODE_MERGED -> {
+                    // La suppression d'un nœud n'est pas appliquée en place : la composante sera rechargée
+                    evict(graphsByNodeId.get(event.getRemovedNodeId()));
+                    FamilyGraph graph = graphsByNodeId.get(event.getNode().getId());
+                    if (graph != null) {
+                        graph.putNode(event.getNode());
+                    }
+                }
+                case RELATION_ADDED -> addRelation(event.getRelation());
+                // Les nœuds importés ne sont pas résidents : seules les composantes existantes reliées sont invalidées
+                case TREE_IMPORTED -> event.getImportedNodeIds().forEach(nodeId -> evict(graphsByNodeId.get(nodeId)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addRelation(NodeRelationDTO relation) {
+        FamilyGraph graph1 = graphsByNodeId.get(relation.getNode1().getId());
+        FamilyGraph graph2 = graphsByNodeId.get(relation.getNode2().getId());
+        if (graph1 == null || graph2 == null) {
+            // Une extrémité n'est pas résidente : sa composante est inconnue, on invalide l'autre
+            evict(graph1);
+            evict(graph2);
+            return;
+        }
+
+        FamilyGraph target = graph1;
+        if (graph1 != graph2) {
+            // Deux composantes se rejoignent : la plus petite est copiée dans la plus grande
+            FamilyGraph absorbed = graph1.size() >= graph2.size() ? graph2 : graph1;
+            target = absorbed == graph1 ? graph2 : graph1;
+            evict(absorbed);
+            target.absorb(absorbed);
+            for (long nodeId : absorbed.getNodeIds()) {
+                graphsByNodeId.put(nodeId, target);
+            }
+            residentNodes += absorbed.size();
+        }
+        target.addRelation(relation.getNode1().getId(), relation.getNode2().getId(), relation.getRelationType());
+        trim();
+    }
+
+    private FamilyGraph load(Long nodeId) {
+        List<NodeRelationRepository.RelationRow> relations = nodeRelationRepository.findComponentRelations(nodeId);
+
+        Set<Long> nodeIds = new HashSet<>();
+        nodeIds.add(nodeId);
+        for (NodeRelationRepository.RelationRow relation : relations) {
+            nodeIds.add(relation.getNode1Id());
+            nodeIds.add(relation.getNode2Id());
+        }
+
+        FamilyGraph graph = new FamilyGraph(nodeIds.size());
+        List<Long> ids = new ArrayList<>(nodeIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, ids.size()));
+            nodeRepository.findAllWithInterestsByIdIn(batch).forEach(node -> graph.putNode(NodeDTO.from(node)));
+        }
+        for (NodeRelationRepository.RelationRow relation : relations) {
+            graph.addRelation(relation.getNode1Id(), relation.getNode2Id(),
+                    NodeRelation.RelationType.valueOf(relation.getRelation()));
+        }
+        return graph;
+    }
+
+    private FamilyGraph register(FamilyGraph graph, long loadedAt) {
+        return locked(() -> {
+            if (graph.size() == 0 || loadedAt != modificationCount) {
+                // Une écriture a été validée pendant le chargement : graphe utilisé pour cette requête seulement
+                return graph;
+            }
+            FamilyGraph existing = graphsByNodeId.get(graph.getNodeIds()[0]);
+            if (existing != null) {
+                return existing;
+            }
+            add(graph);
+            trim();
+            return graph;
+        });
+    }
+
+    private void touch(FamilyGraph graph) {
+        locked(() -> residentGraphs.get(graph));
+    }
+
+    private <T> T locked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(FamilyGraph graph) {
+        residentGraphs.put(graph, Boolean.TRUE);
+        for (long nodeId : graph.getNodeIds()) {
+            graphsByNodeId.put(nodeId, graph);
+        }
+        residentNodes += graph.size();
+    }
+
+    private void evict(FamilyGraph graph) {
+        if (graph == null || residentGraphs.remove(graph) == null) {
+            return;
+        }
+        for (long nodeId : graph.getNodeIds()) {
+            graphsByNodeId.remove(nodeId, graph);
+        }
+        residentNodes -= graph.size();
+    }
+
+    private void trim() {
+        Iterator<FamilyGraph> eldest = residentGraphs.keySet().iterator();
+        while (residentNodes > maxResidentNodes && residentGraphs.size() > 1) {
+            FamilyGraph graph = eldest.next();
+            eldest.remove();
+            residentNodes -= graph.size();
+            for (long nodeId : graph.getNodeIds()) {
+                graphsByNodeId.remove(nodeId, graph);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.famillytree.node.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Fenêtre de générations autour d'un nœud : le parcours ne s'étend pas au-delà
+// de generationsUp générations au-dessus et generationsDown générations en dessous
+@Getter
+@AllArgsConstructor
+public class FamilyWindow {
+
+    public static final FamilyWindow UNBOUNDED =
+            new FamilyWindow(Integer.MAX_VALUE, Integer.MAX_VALUE, EnumSet.allOf(Kind.class));
+
+    private final int generationsUp;
+    private final int generationsDown;
+    private final Set<Kind> kinds;
+
+    public boolean includes(Kind kind) {
+        return kinds.contains(kind);
+    }
+
+    public enum Kind {
+        ANCESTORS,
+        DESCENDANTS,
+        UNCLES_AUNTS,
+        COUSINS,
+        SPOUSES
+    }
+}
@@ -0,0 +1,141 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.model.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Lien de parenté déduit d'un chemin : générations remontées jusqu'à l'ancêtre commun puis redescendues,
+// avec au plus un lien de mariage au début ou à la fin du chemin.
+// Le libellé (en anglais) décrit le nœud d'arrivée par rapport au nœud de départ.
+@Getter
+@AllArgsConstructor
+public class Kinship {
+
+    private static final String[] ORDINALS =
+            {"first", "second", "third", "fourth", "fifth", "sixth", "seventh", "eighth", "ninth", "tenth"};
+
+    private final String label;
+    private final Integer generationsUp;
+    private final Integer generationsDown;
+    private final Integer cousinDegree;
+    private final Integer removed;
+    private final boolean byMarriage;
+
+    public static Kinship of(KinshipPath path) {
+        List<KinshipPath.Step> steps = path.getSteps();
+        Gender gender = path.getNodes().get(path.getNodes().size() - 1).getGender();
+        if (steps.isEmpty()) {
+            return new Kinship("self", 0, 0, null, null, false);
+        }
+
+        int index = 0;
+        boolean spouseFirst = steps.get(0) == KinshipPath.Step.SPOUSE;
+        if (spouseFirst) {
+            index++;
+        }
+        int up = 0;
+        while (index < steps.size() && steps.get(index) == KinshipPath.Step.PARENT) {
+            up++;
+            index++;
+        }
+        int down = 0;
+        while (index < steps.size() && steps.get(index) == KinshipPath.Step.CHILD) {
+            down++;
+            index++;
+        }
+        boolean spouseLast = index == steps.size() - 1 && steps.get(index) == KinshipPath.Step.SPOUSE && steps.size() > 1;
+        if (spouseLast) {
+            index++;
+        }
+        if (index < steps.size() || (spouseFirst && spouseLast)) {
+            // Chemin en zigzag ou plusieurs mariages : pas de nom usuel
+            return new Kinship("relative by marriage", null, null, null, null, true);
+        }
+
+        Integer cousinDegree = up >= 2 && down >= 2 ? Math.min(up, down) - 1 : null;
+        Integer removed = cousinDegree != null ? Math.abs(up - down) : null;
+        if (up == 0 && down == 0) {
+            return new Kinship(word(gender, "husband", "wife", "spouse"), 0, 0, null, null, true);
+        }
+
+        String blood = bloodLabel(up, down, gender);
+        if (!spouseFirst && !spouseLast) {
+            return new Kinship(blood, up, down, cousinDegree, removed, false);
+        }
+        // Enfant du conjoint ou conjoint d'un parent : lien "step", sinon lien "in-law"
+        boolean step = (spouseFirst && up == 0) || (spouseLast && down == 0);
+        String label = step
+                ? (blood.contains("-") || blood.startsWith("grand") ? "step-" + blood : "step" + blood)
+                : blood + "-in-law";
+        return new Kinship(label, up, down, cousinDegree, removed, true);
+    }
+
+    private static String bloodLabel(int up, int down, Gender gender) {
+        if (up == 0) {
+            return generations(down, word(gender, "son", "daughter", "child"), word(gender, "grandson", "granddaughter", "grandchild"));
+        }
+        if (down == 0) {
+            return generations(up, word(gender, "father", "mother", "parent"), word(gender, "grandfather", "grandmother", "grandparent"));
+        }
+        if (up == 1 && down == 1) {
+            return word(gender, "brother", "sister", "sibling");
+        }
+        if (up == 1) {
+            return collateral(down, word(gender, "nephew", "niece", "nephew or niece"));
+        }
+        if (down == 1) {
+            return collateral(up, word(gender, "uncle", "aunt", "uncle or aunt"));
+        }
+
+        int degree = Math.min(up, down) - 1;
+        int removed = Math.abs(up - down);
+        String cousin = ordinal(degree) + " cousin";
+        return switch (removed) {
+            case 0 -> cousin;
+            case 1 -> cousin + " once removed";
+            case 2 -> cousin + " twice removed";
+            default -> cousin + " " + removed + " times removed";
+        };
+    }
+
+    // En toutes lettres jusqu'à 10, puis 11th, 12th, 13th, 21st, 22nd, 23rd...
+    private static String ordinal(int number) {
+        if (number <= ORDINALS.length) {
+            return ORDINALS[number - 1];
+        }
+        if (number % 100 >= 11 && number % 100 <= 13) {
+            return number + "th";
+        }
+        return number + switch (number % 10) {
+            case 1 -> "st";
+            case 2 -> "nd";
+            case 3 -> "rd";
+            default -> "th";
+        };
+    }
+
+    // 1 : enfant/parent, 2 : petit-enfant/grand-parent, puis un "great-" par génération supplémentaire
+    private static String generations(int count, String direct, String grand) {
+        if (count == 1) {
+            return direct;
+        }
+        return "great-".repeat(count - 2) + grand;
+    }
+
+    // Neveux et oncles : 2 générations pour le lien direct, puis "grand-", puis "great-grand-"...
+    private static String collateral(int count, String direct) {
+        if (count == 2) {
+            return direct;
+        }
+        return "great-".repeat(count - 3) + "grand-" + direct;
+    }
+
+    private static String word(Gender gender, String male, String female, String neutral) {
+        if (gender == Gender.MALE) {
+            return male;
+        }
+        return gender == Gender.FEMALE ? female : neutral;
+    }
+}
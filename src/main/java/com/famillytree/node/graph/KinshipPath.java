@@ -0,0 +1,22 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Chemin de parenté : steps.get(i) donne le lien entre nodes.get(i) et nodes.get(i + 1)
+@Getter
+@AllArgsConstructor
+public class KinshipPath {
+
+    private final List<NodeDTO> nodes;
+    private final List<Step> steps;
+
+    public enum Step {
+        PARENT,  // le nœud suivant est un parent du précédent
+        CHILD,   // le nœud suivant est un enfant du précédent
+        SPOUSE   // le nœud suivant est un conjoint du précédent
+    }
+}
@@ -0,0 +1,56 @@
+package com.famillytree.node.model;
+
+import com.famillytree.node.event.FamilyTreeEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Journal des modifications de l'arbre d'un utilisateur, en ajout seul.
+// "version" est la version de l'arbre (family_tree_versions) après la modification.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(FamilyTreeChange.Key.class)
+@Table(name = "family_tree_changes")
+public class FamilyTreeChange {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private FamilyTreeEvent.Type type;
+
+    @Column(name = "node_id")
+    private Long nodeId;
+
+    // Autre extrémité de la relation, ou nœud supprimé par une fusion
+    @Column(name = "related_node_id")
+    private Long relatedNodeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "relation_type")
+    private NodeRelation.RelationType relationType;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long version;
+    }
+}
@@ -0,0 +1,25 @@
+package com.famillytree.node.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Version de l'arbre vu par un utilisateur : incrémentée dans la transaction de chaque
+// écriture qui touche un nœud de cet arbre. Sert d'ETag aux lectures de l'arbre.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "family_tree_versions")
+public class FamilyTreeVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
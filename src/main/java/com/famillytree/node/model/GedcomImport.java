@@ -0,0 +1,89 @@
+package com.famillytree.node.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Import GEDCOM en cours ou terminé ; les compteurs "processed" servent de point de reprise
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "gedcom_imports")
+public class GedcomImport {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "storage_path", nullable = false)
+    private String storagePath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "total_individuals")
+    private Integer totalIndividuals;
+
+    @Column(name = "total_families")
+    private Integer totalFamilies;
+
+    // Enregistrements INDI/FAM déjà traités (importés ou ignorés)
+    @Column(name = "processed_individuals", nullable = false)
+    private int processedIndividuals;
+
+    @Column(name = "processed_families", nullable = false)
+    private int processedFamilies;
+
+    @Column(name = "imported_nodes", nullable = false)
+    private int importedNodes;
+
+    @Column(name = "imported_relations", nullable = false)
+    private int importedRelations;
+
+    @Column(name = "skipped_individuals", nullable = false)
+    private int skippedIndividuals;
+
+    @Column(name = "skipped_relations", nullable = false)
+    private int skippedRelations;
+
+    // Exécution qui traite l'import et fin de son bail, prolongé à chaque lot : une autre instance
+    // ne peut reprendre un import RUNNING qu'une fois le bail expiré
+    @Column(name = "lease_owner", length = 36)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    @UpdateTimestamp
+    @Column(name = "updated_date")
+    private LocalDateTime updatedDate;
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
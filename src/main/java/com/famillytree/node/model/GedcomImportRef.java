@@ -0,0 +1,33 @@
+package com.famillytree.node.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Correspondance entre l'identifiant GEDCOM d'un individu (@I12@) et le nœud créé
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "gedcom_import_refs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_gedcom_import_refs_xref", columnNames = {"import_id", "xref"})
+})
+public class GedcomImportRef {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gedcom_import_refs_seq")
+    @SequenceGenerator(name = "gedcom_import_refs_seq", sequenceName = "gedcom_import_refs_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(name = "import_id", nullable = false)
+    private Long importId;
+
+    @Column(nullable = false, length = 64)
+    private String xref;
+
+    @Column(name = "node_id", nullable = false)
+    private Long nodeId;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,11 +15,15 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "nodes")
+@Table(name = "nodes", indexes = {
+    @Index(name = "idx_nodes_user_id", columnList = "user_id, id")
+})
 public class Node {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence allouée par blocs : les insertions peuvent être regroupées en lots JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nodes_seq")
+    @SequenceGenerator(name = "nodes_seq", sequenceName = "nodes_seq", allocationSize = 500)
     private Long id;
 
     @Column(name = "title", nullable = true)
@@ -41,7 +46,9 @@ public class Node {
 
     private String phone;
 
+    // Nœuds chargés sans jointure sur les centres d'intérêt : collections initialisées par lots d'IN
     @ElementCollection
+    @BatchSize(size = 500)
     @CollectionTable(name = "node_interests", joinColumns = @JoinColumn(name = "node_id"))
     @Column(name = "interest")
     private List<String> interests;
@@ -0,0 +1,42 @@
+package com.famillytree.node.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Fermeture transitive des relations CHILD : une ligne par couple ascendant/descendant,
+// avec la plus courte distance en générations (1 = parent direct)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(NodeClosure.Key.class)
+@Table(name = "node_closure", indexes = {
+    @Index(name = "idx_node_closure_descendant", columnList = "descendant_id, depth")
+})
+public class NodeClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
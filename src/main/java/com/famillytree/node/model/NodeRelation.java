@@ -11,11 +11,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "node_relations")
+@Table(name = "node_relations", indexes = {
+    @Index(name = "idx_node_relations_node1", columnList = "node1_id, relation"),
+    @Index(name = "idx_node_relations_node2", columnList = "node2_id, relation")
+})
 public class NodeRelation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence allouée par blocs : les insertions peuvent être regroupées en lots JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "node_relations_seq")
+    @SequenceGenerator(name = "node_relations_seq", sequenceName = "node_relations_seq", allocationSize = 500)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,13 @@
+package com.famillytree.node.repository;
+
+import com.famillytree.node.model.FamilyTreeChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FamilyTreeChangeRepository extends JpaRepository<FamilyTreeChange, FamilyTreeChange.Key> {
+    List<FamilyTreeChange> findByUserIdAndVersionGreaterThanOrderByVersionAsc(Long userId, Long version, Pageable pageable);
+}
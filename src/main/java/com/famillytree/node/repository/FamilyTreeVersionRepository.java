@@ -0,0 +1,9 @@
+package com.famillytree.node.repository;
+
+import com.famillytree.node.model.FamilyTreeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FamilyTreeVersionRepository extends JpaRepository<FamilyTreeVersion, Long> {
+}
@@ -0,0 +1,11 @@
+package com.famillytree.node.repository;
+
+import com.famillytree.node.model.GedcomImportRef;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GedcomImportRefRepository extends JpaRepository<GedcomImportRef, Long> {
+    List<GedcomImportRef> findByImportIdAndXrefIn(Long importId, Collection<String> xrefs);
+}
@@ -0,0 +1,37 @@
+package com.famillytree.node.repository;
+
+import com.famillytree.node.model.GedcomImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface GedcomImportRepository extends JpaRepository<GedcomImport, Long> {
+
+    // Prise de l'import par une exécution : refusée s'il est terminé, ou en cours avec un bail encore valide
+    default int claim(Long id, String leaseOwner, LocalDateTime leaseExpiresAt, LocalDateTime now) {
+        return claim(id, leaseOwner, leaseExpiresAt, now, GedcomImport.Status.RUNNING, GedcomImport.Status.COMPLETED);
+    }
+
+    @Modifying
+    @Query("update GedcomImport g set g.status = :running, g.leaseOwner = :leaseOwner, " +
+           "g.leaseExpiresAt = :leaseExpiresAt, g.errorMessage = null " +
+           "where g.id = :id and g.status <> :completed " +
+           "and (g.status <> :running or g.leaseExpiresAt is null or g.leaseExpiresAt < :now)")
+    int claim(@Param("id") Long id, @Param("leaseOwner") String leaseOwner,
+              @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("now") LocalDateTime now,
+              @Param("running") GedcomImport.Status running, @Param("completed") GedcomImport.Status completed);
+
+    // Prolonge le bail s'il appartient toujours à l'exécution ; la ligne reste verrouillée jusqu'à la fin de la transaction
+    default int renewLease(Long id, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        return renewLease(id, leaseOwner, leaseExpiresAt, GedcomImport.Status.RUNNING);
+    }
+
+    @Modifying
+    @Query("update GedcomImport g set g.leaseExpiresAt = :leaseExpiresAt " +
+           "where g.id = :id and g.leaseOwner = :leaseOwner and g.status = :running")
+    int renewLease(@Param("id") Long id, @Param("leaseOwner") String leaseOwner,
+                   @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("running") GedcomImport.Status running);
+}
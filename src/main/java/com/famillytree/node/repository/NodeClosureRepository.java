@@ -0,0 +1,48 @@
+package com.famillytree.node.repository;
+
+import com.famillytree.node.model.NodeClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NodeClosureRepository extends JpaRepository<NodeClosure, NodeClosure.Key> {
+    Optional<NodeClosure> findByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    List<NodeClosure> findByAncestorIdAndDepthLessThanEqualOrderByDepthAscDescendantIdAsc(Long ancestorId, int maxDepth);
+
+    // Ancêtres communs les plus proches : somme des distances minimale, chaque nœud comptant comme son propre ancêtre
+    @Query(value = """
+            WITH ancestors1 AS (
+                SELECT ancestor_id, depth FROM node_closure WHERE descendant_id = :nodeId1
+                UNION ALL
+                SELECT CAST(:nodeId1 AS BIGINT), 0
+            ),
+            ancestors2 AS (
+                SELECT ancestor_id, depth FROM node_closure WHERE descendant_id = :nodeId2
+                UNION ALL
+                SELECT CAST(:nodeId2 AS BIGINT), 0
+            ),
+            common AS (
+                SELECT a1.ancestor_id, a1.depth AS depth1, a2.depth AS depth2,
+                       RANK() OVER (ORDER BY a1.depth + a2.depth) AS closeness
+                FROM ancestors1 a1
+                JOIN ancestors2 a2 ON a2.ancestor_id = a1.ancestor_id
+            )
+            SELECT ancestor_id AS "ancestorId", depth1 AS "depth1", depth2 AS "depth2"
+            FROM common
+            WHERE closeness = 1
+            ORDER BY ancestor_id
+            """, nativeQuery = true)
+    List<CommonAncestorRow> findLowestCommonAncestors(@Param("nodeId1") Long nodeId1, @Param("nodeId2") Long nodeId2);
+
+    interface CommonAncestorRow {
+        Long getAncestorId();
+        Integer getDepth1();
+        Integer getDepth2();
+    }
+}
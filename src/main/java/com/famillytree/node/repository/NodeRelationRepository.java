@@ -1,14 +1,47 @@
 package com.famillytree.node.repository;
 
-import com.famillytree.node.model.Node;
 import com.famillytree.node.model.NodeRelation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NodeRelationRepository extends JpaRepository<NodeRelation, Long> {
-    List<NodeRelation> findByNode1AndRelation(Node node1, NodeRelation.RelationType relation);
-    List<NodeRelation> findByNode2AndRelation(Node node2, NodeRelation.RelationType relation);
-} 
\ No newline at end of file
+    // Variantes ensemblistes : une génération entière par requête, avec les deux extrémités chargées
+    // et les centres d'intérêt de l'extrémité renvoyée (une seule collection par requête : pas de produit cartésien)
+    @EntityGraph(attributePaths = {"node1", "node2", "node2.interests"})
+    @Query("select r from NodeRelation r where r.node1.id in :nodeIds and r.relation = :relation")
+    List<NodeRelation> findWithNode2InterestsByNode1IdInAndRelation(@Param("nodeIds") Collection<Long> nodeIds,
+                                                                    @Param("relation") NodeRelation.RelationType relation);
+
+    @EntityGraph(attributePaths = {"node1", "node2", "node1.interests"})
+    @Query("select r from NodeRelation r where r.node2.id in :nodeIds and r.relation = :relation")
+    List<NodeRelation> findWithNode1InterestsByNode2IdInAndRelation(@Param("nodeIds") Collection<Long> nodeIds,
+                                                                    @Param("relation") NodeRelation.RelationType relation);
+
+    // Toutes les relations de la composante connexe contenant le nœud (tous types, dans les deux sens)
+    @Query(value = """
+            WITH RECURSIVE component(node_id) AS (
+                SELECT CAST(:nodeId AS BIGINT)
+                UNION
+                SELECT CASE WHEN r.node1_id = c.node_id THEN r.node2_id ELSE r.node1_id END
+                FROM node_relations r
+                JOIN component c ON c.node_id = r.node1_id OR c.node_id = r.node2_id
+            )
+            SELECT r.node1_id AS "node1Id", r.node2_id AS "node2Id", r.relation AS "relation"
+            FROM node_relations r
+            WHERE r.node1_id IN (SELECT node_id FROM component)
+            """, nativeQuery = true)
+    List<RelationRow> findComponentRelations(@Param("nodeId") Long nodeId);
+
+    interface RelationRow {
+        Long getNode1Id();
+        Long getNode2Id();
+        String getRelation();
+    }
+}
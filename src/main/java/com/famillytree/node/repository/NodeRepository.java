@@ -1,9 +1,13 @@
 package com.famillytree.node.repository;
 
 import com.famillytree.node.model.Node;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,37 @@ import java.util.Optional;
 public interface NodeRepository extends JpaRepository<Node, Long> {
     Optional<Node> findByUserId(Long userId);
     List<Node> findByUserIdAndBaseNodeIsTrue(Long userId);
-} 
\ No newline at end of file
+
+    // Centres d'intérêt chargés avec le nœud : sérialisable hors transaction (open-in-view désactivé)
+    @Query("select n from Node n left join fetch n.interests where n.id = :id")
+    Optional<Node> findWithInterestsById(@Param("id") Long id);
+
+    @Query("select distinct n from Node n left join fetch n.interests where n.id in :ids")
+    List<Node> findAllWithInterestsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select n.id from Node n where n.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Pagination par clé (keyset) : page suivante après le dernier ID vu, via l'index (user_id, id)
+    @Query("select n.id from Node n where n.userId = :userId and n.id > :afterId order by n.id")
+    List<Long> findIdsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select n.id from Node n where n.id > :afterId order by n.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Propriétaires des nœuds des composantes connexes contenant ces nœuds
+    @Query(value = """
+            WITH RECURSIVE component(node_id) AS (
+                SELECT id FROM nodes WHERE id IN (:nodeIds)
+                UNION
+                SELECT CASE WHEN r.node1_id = c.node_id THEN r.node2_id ELSE r.node1_id END
+                FROM node_relations r
+                JOIN component c ON c.node_id = r.node1_id OR c.node_id = r.node2_id
+            )
+            SELECT DISTINCT n.user_id
+            FROM component c
+            JOIN nodes n ON n.id = c.node_id
+            WHERE n.user_id IS NOT NULL
+            """, nativeQuery = true)
+    List<Long> findComponentOwnerIds(@Param("nodeIds") Collection<Long> nodeIds);
+}
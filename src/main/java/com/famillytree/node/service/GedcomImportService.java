@@ -0,0 +1,198 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.GedcomImportResponse;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.gedcom.GedcomReader;
+import com.famillytree.node.gedcom.GedcomRecord;
+import com.famillytree.node.model.GedcomImport;
+import com.famillytree.node.repository.GedcomImportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Import GEDCOM en tâche de fond : le fichier est conservé sur disque puis lu en flux,
+// d'abord les individus (INDI) puis les familles (FAM), par lots validés un à un.
+// Après un échec, la reprise saute les enregistrements des lots déjà validés.
+// L'import est pris en base avec un bail (GedcomImportWriter.claim) : une seule exécution à la fois, toutes instances confondues.
+// Le fichier, lui, reste dans familytree.gedcom.storage-dir : avec plusieurs instances, ce répertoire doit être
+// partagé, sinon un import ne peut être repris que par l'instance qui l'a reçu.
+@Service
+@RequiredArgsConstructor
+public class GedcomImportService {
+
+    private final GedcomImportRepository gedcomImportRepository;
+    private final GedcomImportWriter gedcomImportWriter;
+    private final NodeService nodeService;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${familytree.gedcom.storage-dir:${java.io.tmpdir}/familytree-gedcom}")
+    private String storageDir;
+
+    @Value("${familytree.gedcom.chunk-size:1000}")
+    private int chunkSize;
+
+    public GedcomImportResponse startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw NodeException.invalidInput("Le fichier GEDCOM est vide");
+        }
+        Long userId = nodeService.getCurrentUserId();
+
+        Path path;
+        try {
+            Path directory = Files.createDirectories(Paths.get(storageDir));
+            path = directory.resolve(UUID.randomUUID() + ".ged");
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new NodeException("Impossible d'enregistrer le fichier GEDCOM: " + e.getMessage());
+        }
+
+        GedcomImport gedcomImport = gedcomImportRepository.save(GedcomImport.builder()
+                .userId(userId)
+                .fileName(file.getOriginalFilename())
+                .storagePath(path.toString())
+                .status(GedcomImport.Status.PENDING)
+                .build());
+        submit(gedcomImport.getId());
+        return mapToResponse(gedcomImport);
+    }
+
+    public GedcomImportResponse getImport(Long id) {
+        return mapToResponse(getOwnedImport(id));
+    }
+
+    public GedcomImportResponse resumeImport(Long id) {
+        GedcomImport gedcomImport = getOwnedImport(id);
+        if (gedcomImport.getStatus() == GedcomImport.Status.COMPLETED) {
+            throw NodeException.invalidInput("Cet import est déjà terminé");
+        }
+        // Fichier absent de cette instance (répertoire non partagé, redémarrage sur un autre hôte) :
+        // échec immédiat, sans prendre le bail ni marquer l'import FAILED
+        if (!Files.isReadable(Paths.get(gedcomImport.getStoragePath()))) {
+            throw NodeException.importFileUnavailable(id);
+        }
+        // Un import RUNNING interrompu par un arrêt de l'application est repris une fois son bail expiré
+        submit(id);
+        return mapToResponse(gedcomImportRepository.findById(id).orElse(gedcomImport));
+    }
+
+    private void submit(Long id) {
+        String leaseOwner = UUID.randomUUID().toString();
+        if (!gedcomImportWriter.claim(id, leaseOwner)) {
+            throw NodeException.invalidInput("Cet import est déjà en cours");
+        }
+        try {
+            taskExecutor.execute(() -> run(id, leaseOwner));
+        } catch (TaskRejectedException e) {
+            // File d'attente pleine : le bail est rendu (import FAILED) pour que l'import puisse être repris
+            gedcomImportWriter.fail(id, leaseOwner, "Import non planifié : " + e.getMessage());
+            throw NodeException.importRejected(id);
+        }
+    }
+
+    private void run(Long id, String leaseOwner) {
+        try {
+            GedcomImport gedcomImport = gedcomImportRepository.findById(id)
+                    .orElseThrow(() -> NodeException.importNotFound(id));
+            Path path = Paths.get(gedcomImport.getStoragePath());
+
+            if (gedcomImport.getTotalIndividuals() == null || gedcomImport.getTotalFamilies() == null) {
+                countRecords(id, leaseOwner, path);
+            }
+            importRecords(id, leaseOwner, path, "INDI", gedcomImport.getProcessedIndividuals());
+            importRecords(id, leaseOwner, path, "FAM", gedcomImport.getProcessedFamilies());
+
+            gedcomImportWriter.complete(id, leaseOwner);
+            Files.deleteIfExists(path);
+        } catch (Exception e) {
+            gedcomImportWriter.fail(id, leaseOwner, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    // Premier passage rapide pour connaître le volume et exposer une progression
+    private void countRecords(Long id, String leaseOwner, Path path) throws IOException {
+        int individuals = 0;
+        int families = 0;
+        try (GedcomReader reader = new GedcomReader(Files.newInputStream(path))) {
+            GedcomRecord record;
+            while ((record = reader.next()) != null) {
+                if ("INDI".equals(record.getTag())) {
+                    individuals++;
+                } else if ("FAM".equals(record.getTag())) {
+                    families++;
+                }
+            }
+        }
+        gedcomImportWriter.saveTotals(id, leaseOwner, individuals, families);
+    }
+
+    private void importRecords(Long id, String leaseOwner, Path path, String tag, int alreadyProcessed) throws IOException {
+        try (InputStream input = Files.newInputStream(path); GedcomReader reader = new GedcomReader(input)) {
+            for (int skipped = 0; skipped < alreadyProcessed; skipped++) {
+                if (reader.next(tag) == null) {
+                    return;
+                }
+            }
+
+            List<GedcomRecord> chunk = new ArrayList<>(chunkSize);
+            GedcomRecord record;
+            while ((record = reader.next(tag)) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    write(id, leaseOwner, tag, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(id, leaseOwner, tag, chunk);
+            }
+        }
+    }
+
+    private void write(Long id, String leaseOwner, String tag, List<GedcomRecord> chunk) {
+        if ("INDI".equals(tag)) {
+            gedcomImportWriter.writeIndividuals(id, leaseOwner, chunk);
+        } else {
+            gedcomImportWriter.writeFamilies(id, leaseOwner, chunk);
+        }
+    }
+
+    private GedcomImport getOwnedImport(Long id) {
+        GedcomImport gedcomImport = gedcomImportRepository.findById(id)
+                .orElseThrow(() -> NodeException.importNotFound(id));
+        if (!gedcomImport.getUserId().equals(nodeService.getCurrentUserId())) {
+            throw NodeException.unauthorized("Vous n'êtes pas autorisé à consulter cet import");
+        }
+        return gedcomImport;
+    }
+
+    private GedcomImportResponse mapToResponse(GedcomImport gedcomImport) {
+        return GedcomImportResponse.builder()
+                .id(gedcomImport.getId())
+                .fileName(gedcomImport.getFileName())
+                .status(gedcomImport.getStatus())
+                .totalIndividuals(gedcomImport.getTotalIndividuals())
+                .totalFamilies(gedcomImport.getTotalFamilies())
+                .processedIndividuals(gedcomImport.getProcessedIndividuals())
+                .processedFamilies(gedcomImport.getProcessedFamilies())
+                .importedNodes(gedcomImport.getImportedNodes())
+                .importedRelations(gedcomImport.getImportedRelations())
+                .skippedIndividuals(gedcomImport.getSkippedIndividuals())
+                .skippedRelations(gedcomImport.getSkippedRelations())
+                .errorMessage(gedcomImport.getErrorMessage())
+                .createdDate(gedcomImport.getCreatedDate())
+                .updatedDate(gedcomImport.getUpdatedDate())
+                .build();
+    }
+}
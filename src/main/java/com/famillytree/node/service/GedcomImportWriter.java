@@ -0,0 +1,211 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.gedcom.GedcomMapper;
+import com.famillytree.node.gedcom.GedcomRecord;
+import com.famillytree.node.model.GedcomImport;
+import com.famillytree.node.model.GedcomImportRef;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.model.NodeRelation;
+import com.famillytree.node.repository.GedcomImportRefRepository;
+import com.famillytree.node.repository.GedcomImportRepository;
+import com.famillytree.node.repository.NodeRelationRepository;
+import com.famillytree.node.repository.NodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Écriture d'un lot d'enregistrements GEDCOM : les nœuds ou relations du lot et l'avancement
+// de l'import sont validés dans la même transaction, un lot est donc appliqué en entier ou pas du tout
+@Component
+@RequiredArgsConstructor
+public class GedcomImportWriter {
+
+    private final GedcomImportRepository gedcomImportRepository;
+    private final GedcomImportRefRepository gedcomImportRefRepository;
+    private final NodeRepository nodeRepository;
+    private final NodeRelationRepository nodeRelationRepository;
+    private final NodeClosureService nodeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${familytree.gedcom.lease:PT5M}")
+    private Duration lease;
+
+    // Passe l'import en RUNNING pour l'exécution leaseOwner ; false s'il est déjà traité ailleurs ou terminé
+    @Transactional
+    public boolean claim(Long importId, String leaseOwner) {
+        LocalDateTime now = LocalDateTime.now();
+        return gedcomImportRepository.claim(importId, leaseOwner, now.plus(lease), now) == 1;
+    }
+
+    @Transactional
+    public void saveTotals(Long importId, String leaseOwner, int totalIndividuals, int totalFamilies) {
+        holdLease(importId, leaseOwner);
+        GedcomImport gedcomImport = getImport(importId);
+        gedcomImport.setTotalIndividuals(totalIndividuals);
+        gedcomImport.setTotalFamilies(totalFamilies);
+        gedcomImportRepository.save(gedcomImport);
+    }
+
+    @Transactional
+    public void writeIndividuals(Long importId, String leaseOwner, List<GedcomRecord> individuals) {
+        holdLease(importId, leaseOwner);
+        GedcomImport gedcomImport = getImport(importId);
+        List<Long> nodeIds = new ArrayList<>(individuals.size());
+        int skipped = 0;
+
+        for (GedcomRecord individual : individuals) {
+            Node node = individual.getXref() != null ? GedcomMapper.toNode(individual, gedcomImport.getUserId()) : null;
+            if (node == null) {
+                skipped++;
+                continue;
+            }
+            node = nodeRepository.save(node);
+            gedcomImportRefRepository.save(GedcomImportRef.builder()
+                    .importId(importId)
+                    .xref(individual.getXref())
+                    .nodeId(node.getId())
+                    .build());
+            nodeIds.add(node.getId());
+        }
+
+        gedcomImport.setProcessedIndividuals(gedcomImport.getProcessedIndividuals() + individuals.size());
+        gedcomImport.setImportedNodes(gedcomImport.getImportedNodes() + nodeIds.size());
+        gedcomImport.setSkippedIndividuals(gedcomImport.getSkippedIndividuals() + skipped);
+        gedcomImportRepository.save(gedcomImport);
+        publish(gedcomImport.getUserId(), nodeIds);
+    }
+
+    @Transactional
+    public void writeFamilies(Long importId, String leaseOwner, List<GedcomRecord> families) {
+        holdLease(importId, leaseOwner);
+        GedcomImport gedcomImport = getImport(importId);
+
+        // Une seule requête pour retrouver les nœuds de tous les individus cités dans le lot
+        Set<String> xrefs = new HashSet<>();
+        for (GedcomRecord family : families) {
+            addPointer(xrefs, family.value("HUSB"));
+            addPointer(xrefs, family.value("WIFE"));
+            family.children("CHIL").forEach(child -> addPointer(xrefs, child.getValue()));
+        }
+        Map<String, Long> nodeIdsByXref = new HashMap<>();
+        if (!xrefs.isEmpty()) {
+            gedcomImportRefRepository.findByImportIdAndXrefIn(importId, xrefs)
+                    .forEach(ref -> nodeIdsByXref.put(ref.getXref(), ref.getNodeId()));
+        }
+
+        Set<Long> nodeIds = new HashSet<>();
+        List<long[]> childRelations = new ArrayList<>();
+        int imported = 0;
+        int skipped = 0;
+        for (GedcomRecord family : families) {
+            Long husband = nodeIdsByXref.get(GedcomMapper.pointer(family.value("HUSB")));
+            Long wife = nodeIdsByXref.get(GedcomMapper.pointer(family.value("WIFE")));
+            List<Long> parents = new ArrayList<>(2);
+            if (husband != null) {
+                parents.add(husband);
+            }
+            if (wife != null) {
+                parents.add(wife);
+            }
+
+            if (husband != null && wife != null) {
+                saveRelation(husband, wife, NodeRelation.RelationType.SPOUSE);
+                imported++;
+            } else if (family.value("HUSB") != null && family.value("WIFE") != null) {
+                skipped++;
+            }
+
+            for (GedcomRecord childRecord : family.children("CHIL")) {
+                Long child = nodeIdsByXref.get(GedcomMapper.pointer(childRecord.getValue()));
+                if (child == null) {
+                    skipped += parents.size();
+                    continue;
+                }
+                for (Long parent : parents) {
+                    saveRelation(parent, child, NodeRelation.RelationType.CHILD);
+                    childRelations.add(new long[]{parent, child});
+                    imported++;
+                }
+                nodeIds.add(child);
+            }
+            nodeIds.addAll(parents);
+        }
+        nodeClosureService.addChildRelations(childRelations);
+
+        gedcomImport.setProcessedFamilies(gedcomImport.getProcessedFamilies() + families.size());
+        gedcomImport.setImportedRelations(gedcomImport.getImportedRelations() + imported);
+        gedcomImport.setSkippedRelations(gedcomImport.getSkippedRelations() + skipped);
+        gedcomImportRepository.save(gedcomImport);
+        publish(gedcomImport.getUserId(), new ArrayList<>(nodeIds));
+    }
+
+    @Transactional
+    public void complete(Long importId, String leaseOwner) {
+        holdLease(importId, leaseOwner);
+        GedcomImport gedcomImport = getImport(importId);
+        gedcomImport.setStatus(GedcomImport.Status.COMPLETED);
+        gedcomImport.setLeaseExpiresAt(null);
+        gedcomImportRepository.save(gedcomImport);
+    }
+
+    @Transactional
+    public void fail(Long importId, String leaseOwner, String errorMessage) {
+        // Bail perdu : l'import a été repris par une autre exécution, dont l'état ne doit pas être écrasé
+        if (gedcomImportRepository.renewLease(importId, leaseOwner, LocalDateTime.now()) != 1) {
+            return;
+        }
+        GedcomImport gedcomImport = getImport(importId);
+        gedcomImport.setStatus(GedcomImport.Status.FAILED);
+        gedcomImport.setLeaseExpiresAt(null);
+        gedcomImport.setErrorMessage(errorMessage != null && errorMessage.length() > 1000
+                ? errorMessage.substring(0, 1000)
+                : errorMessage);
+        gedcomImportRepository.save(gedcomImport);
+    }
+
+    // Un lot n'est écrit que par l'exécution qui détient le bail : sinon la transaction est annulée
+    private void holdLease(Long importId, String leaseOwner) {
+        if (gedcomImportRepository.renewLease(importId, leaseOwner, LocalDateTime.now().plus(lease)) != 1) {
+            throw new NodeException("L'import " + importId + " a été repris par une autre exécution");
+        }
+    }
+
+    private void saveRelation(Long node1Id, Long node2Id, NodeRelation.RelationType relationType) {
+        nodeRelationRepository.save(NodeRelation.builder()
+                .node1(nodeRepository.getReferenceById(node1Id))
+                .node2(nodeRepository.getReferenceById(node2Id))
+                .relation(relationType)
+                .build());
+    }
+
+    private void addPointer(Set<String> xrefs, String value) {
+        String xref = GedcomMapper.pointer(value);
+        if (xref != null) {
+            xrefs.add(xref);
+        }
+    }
+
+    private void publish(Long userId, List<Long> nodeIds) {
+        if (!nodeIds.isEmpty()) {
+            eventPublisher.publishEvent(FamilyTreeEvent.treeImported(userId, nodeIds));
+        }
+    }
+
+    private GedcomImport getImport(Long importId) {
+        return gedcomImportRepository.findById(importId)
+                .orElseThrow(() -> NodeException.importNotFound(importId));
+    }
+}
@@ -2,16 +2,19 @@ package com.famillytree.node.service;
 
 import com.famillytree.node.dto.InvitationRequest;
 import com.famillytree.node.dto.InvitationResponse;
+import com.famillytree.node.event.FamilyTreeEvent;
 import com.famillytree.node.exception.NodeException;
 import com.famillytree.node.model.Invitation;
 import com.famillytree.node.model.Node;
 import com.famillytree.node.repository.InvitationRepository;
 import com.famillytree.node.repository.NodeRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Random;
 
 @Service
@@ -21,6 +24,8 @@ public class InvitationService {
     private final InvitationRepository invitationRepository;
     private final NodeService nodeService;
     private final NodeRepository nodeRepository;
+    private final NodeClosureService nodeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Random random = new Random();
 
     @Transactional
@@ -78,15 +83,17 @@ public class InvitationService {
         invitationNode.setGender(userNode.getGender());
         invitationNode.setAddress(userNode.getAddress());
         invitationNode.setPhone(userNode.getPhone());
-        invitationNode.setInterests(userNode.getInterests());
+        invitationNode.setInterests(userNode.getInterests() != null ? new ArrayList<>(userNode.getInterests()) : null);
         invitationNode.setUserId(userNode.getUserId());
         invitationNode.setBaseNode(userNode.isBaseNode());
 
-        // Supprimer le nœud utilisateur
+        // Supprimer le nœud utilisateur et ses lignes de fermeture
         nodeRepository.delete(userNode);
+        nodeClosureService.removeNode(userNode.getId());
 
         // Sauvegarder le nœud d'invitation mis à jour
-        nodeRepository.save(invitationNode);
+        invitationNode = nodeRepository.save(invitationNode);
+        eventPublisher.publishEvent(FamilyTreeEvent.nodeMerged(nodeService.convertToDTO(invitationNode), userNode.getId()));
 
 
         // Marquer l'invitation comme utilisée
@@ -0,0 +1,154 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.AncestryResponse;
+import com.famillytree.node.dto.CommonAncestorDTO;
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.RelativeDTO;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.graph.FamilyGraphRegistry;
+import com.famillytree.node.model.NodeClosure;
+import com.famillytree.node.repository.NodeClosureRepository;
+import com.famillytree.node.repository.NodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Table de fermeture (node_closure) des relations CHILD, tenue à jour dans la transaction
+// qui crée les relations : les questions d'ascendance deviennent des lectures indexées
+@Service
+@RequiredArgsConstructor
+public class NodeClosureService {
+
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    // Relation CHILD parent -> enfant : chaque ascendant du parent (et le parent) devient ascendant
+    // de chaque descendant de l'enfant (et de l'enfant), à la plus courte distance connue
+    private static final String ADD_CHILD_RELATION_SQL = """
+            INSERT INTO node_closure (ancestor_id, descendant_id, depth)
+            SELECT a.ancestor_id, d.descendant_id, MIN(a.depth + d.depth + 1)
+            FROM (SELECT CAST(? AS BIGINT) AS ancestor_id, 0 AS depth
+                  UNION ALL
+                  SELECT ancestor_id, depth FROM node_closure WHERE descendant_id = ?) a
+            CROSS JOIN (SELECT CAST(? AS BIGINT) AS descendant_id, 0 AS depth
+                        UNION ALL
+                        SELECT descendant_id, depth FROM node_closure WHERE ancestor_id = ?) d
+            WHERE a.ancestor_id <> d.descendant_id
+            GROUP BY a.ancestor_id, d.descendant_id
+            ON CONFLICT (ancestor_id, descendant_id) DO UPDATE SET depth = LEAST(node_closure.depth, EXCLUDED.depth)
+            """;
+
+    private static final String REMOVE_NODE_SQL =
+            "DELETE FROM node_closure WHERE ancestor_id = ? OR descendant_id = ?";
+
+    private final NodeClosureRepository nodeClosureRepository;
+    private final NodeRepository nodeRepository;
+    private final FamilyGraphRegistry familyGraphRegistry;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void addChildRelation(Long parentId, Long childId) {
+        addChildRelations(Collections.singletonList(new long[]{parentId, childId}));
+    }
+
+    // Relations ajoutées dans l'ordre, en un seul lot JDBC : chaque mise à jour voit les précédentes
+    @Transactional
+    public void addChildRelations(List<long[]> parentChildPairs) {
+        if (parentChildPairs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_CHILD_RELATION_SQL, parentChildPairs, JDBC_BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[0]);
+            ps.setLong(3, pair[1]);
+            ps.setLong(4, pair[1]);
+        });
+    }
+
+    @Transactional
+    public void removeNode(Long nodeId) {
+        jdbcTemplate.update(REMOVE_NODE_SQL, nodeId, nodeId);
+    }
+
+    @Transactional(readOnly = true)
+    public AncestryResponse getAncestry(Long userId, Long ancestorId, Long descendantId) {
+        requireOwnedNodes(userId, List.of(ancestorId, descendantId));
+        Integer depth = nodeClosureRepository.findByAncestorIdAndDescendantId(ancestorId, descendantId)
+                .map(NodeClosure::getDepth)
+                .orElse(null);
+        return AncestryResponse.builder()
+                .ancestorId(ancestorId)
+                .descendantId(descendantId)
+                .ancestor(depth != null)
+                .depth(depth)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<RelativeDTO> getDescendants(Long userId, Long nodeId, int maxDepth) {
+        if (maxDepth < 1) {
+            throw NodeException.invalidInput("maxDepth must be at least 1");
+        }
+        requireOwnedNodes(userId, List.of(nodeId));
+        List<NodeClosure> rows = nodeClosureRepository
+                .findByAncestorIdAndDepthLessThanEqualOrderByDepthAscDescendantIdAsc(nodeId, maxDepth);
+        Map<Long, NodeDTO> nodes = loadNodes(rows.stream().map(NodeClosure::getDescendantId).collect(Collectors.toList()));
+        return rows.stream()
+                .map(row -> RelativeDTO.builder()
+                        .node(nodes.get(row.getDescendantId()))
+                        .depth(row.getDepth())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Ancêtres communs les plus proches (plusieurs si, par exemple, les deux parents sont communs)
+    @Transactional(readOnly = true)
+    public List<CommonAncestorDTO> getLowestCommonAncestors(Long userId, Long nodeId1, Long nodeId2) {
+        requireOwnedNodes(userId, List.of(nodeId1, nodeId2));
+        List<NodeClosureRepository.CommonAncestorRow> rows = nodeClosureRepository.findLowestCommonAncestors(nodeId1, nodeId2);
+        Map<Long, NodeDTO> nodes = loadNodes(rows.stream()
+                .map(NodeClosureRepository.CommonAncestorRow::getAncestorId)
+                .collect(Collectors.toList()));
+        return rows.stream()
+                .map(row -> CommonAncestorDTO.builder()
+                        .node(nodes.get(row.getAncestorId()))
+                        .depthFromFirst(row.getDepth1())
+                        .depthFromSecond(row.getDepth2())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // Nœuds existants (sinon 404) et chacun dans la même composante qu'un nœud de l'utilisateur (sinon 403),
+    // comme le nœud focus de NodeService.getFocusNode
+    private void requireOwnedNodes(Long userId, Collection<Long> nodeIds) {
+        List<Long> existing = nodeRepository.findExistingIds(nodeIds);
+        for (Long nodeId : nodeIds) {
+            if (!existing.contains(nodeId)) {
+                throw NodeException.notFound(nodeId);
+            }
+        }
+        for (Long nodeId : nodeIds) {
+            if (!familyGraphRegistry.findOwnerIds(List.of(nodeId)).contains(userId)) {
+                throw NodeException.unauthorized("Ce nœud ne fait pas partie de votre arbre");
+            }
+        }
+    }
+
+    private Map<Long, NodeDTO> loadNodes(List<Long> ids) {
+        Map<Long, NodeDTO> nodes = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            List<Long> batch = new ArrayList<>(ids.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, ids.size())));
+            nodeRepository.findAllWithInterestsByIdIn(batch).forEach(node -> nodes.put(node.getId(), NodeDTO.from(node)));
+        }
+        return nodes;
+    }
+}
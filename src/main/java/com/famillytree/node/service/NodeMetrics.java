@@ -0,0 +1,60 @@
+package com.famillytree.node.service;
+
+import com.famillytree.config.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Mesures du calcul des relations familiales complètes d'un nœud, pour distinguer un arbre profond,
+// un arbre large ou un graphe froid chargé depuis la base (l'attente de connexion est dans hikaricp.connections.*)
+@Component
+public class NodeMetrics {
+
+    private final DistributionSummary statements;
+    private final DistributionSummary entities;
+    private final DistributionSummary relations;
+    private final DistributionSummary graphNodes;
+    private final DistributionSummary treeDepth;
+
+    public NodeMetrics(MeterRegistry meterRegistry) {
+        this.statements = DistributionSummary.builder("familytree.relations.statements")
+                .description("SQL statements prepared per family relations computation (none when the graph is resident)")
+                .baseUnit("statements")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100, 500)
+                .register(meterRegistry);
+        this.entities = DistributionSummary.builder("familytree.relations.entities")
+                .description("Entities loaded by Hibernate per family relations computation")
+                .baseUnit("entities")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.relations = DistributionSummary.builder("familytree.relations.size")
+                .description("Relations returned per family relations computation")
+                .baseUnit("relations")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.graphNodes = DistributionSummary.builder("familytree.graph.nodes")
+                .description("Nodes in the family graph the relations are computed on")
+                .baseUnit("nodes")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.treeDepth = DistributionSummary.builder("familytree.tree.depth")
+                .description("Generations spanned around the node, from the furthest ancestor to the furthest descendant")
+                .baseUnit("generations")
+                .serviceLevelObjectives(1, 2, 3, 4, 5, 6, 8, 10, 12, 16, 20, 30, 40)
+                .register(meterRegistry);
+    }
+
+    public void recordFamilyRelations(QueryCounter.Snapshot work, int graphSize, int depth, int relationCount) {
+        statements.record(work.statements());
+        entities.record(work.entities());
+        relations.record(relationCount);
+        graphNodes.record(graphSize);
+        treeDepth.record(depth);
+    }
+}
@@ -1,34 +1,72 @@
 package com.famillytree.node.service;
 
-import com.famillytree.auth.repository.UserRepository;
+import com.famillytree.auth.model.User;
+import com.famillytree.config.QueryCounter;
+import com.famillytree.node.cache.FamilyRelationsCache;
+import com.famillytree.node.dto.KinshipResponse;
 import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodePageResponse;
 import com.famillytree.node.dto.NodeRelationDTO;
 import com.famillytree.node.dto.NodeRequest;
 import com.famillytree.node.dto.NodeUpdateRequest;
+import com.famillytree.node.event.FamilyTreeEvent;
 import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.graph.FamilyGraph;
+import com.famillytree.node.graph.FamilyGraphRegistry;
+import com.famillytree.node.graph.FamilyWindow;
+import com.famillytree.node.graph.Kinship;
+import com.famillytree.node.graph.KinshipPath;
 import com.famillytree.node.model.Node;
 import com.famillytree.node.model.NodeRelation;
 import com.famillytree.node.repository.NodeRelationRepository;
 import com.famillytree.node.repository.NodeRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+// Durée et nombre d'appels de chaque méthode publique (familytree.node.service), erreurs comprises (tag exception)
 @Service
 @RequiredArgsConstructor
+@Timed(value = "familytree.node.service", histogram = true)
 public class NodeService {
 
+    private static final int IN_CLAUSE_BATCH_SIZE = 500;
+
     private final NodeRepository nodeRepository;
-    private final UserRepository userRepository;
     private final NodeRelationRepository nodeRelationRepository;
+    private final FamilyGraphRegistry familyGraphRegistry;
+    private final FamilyRelationsCache familyRelationsCache;
+    private final NodeClosureService nodeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryCounter queryCounter;
+    private final NodeMetrics nodeMetrics;
+
+    @Value("${familytree.nodes.page-size.default:50}")
+    private int defaultPageSize;
+
+    @Value("${familytree.nodes.page-size.max:500}")
+    private int maxPageSize;
+
+    @Value("${familytree.kinship.max-depth:40}")
+    private int kinshipMaxDepth;
 
     @Transactional
     public Node createNode(NodeRequest request) {
@@ -54,6 +92,8 @@ public class NodeService {
                 .build();
 
         node = nodeRepository.save(node);
+        NodeDTO nodeDTO = convertToDTO(node);
+        eventPublisher.publishEvent(FamilyTreeEvent.nodeCreated(nodeDTO));
 
         // Si une relation est spécifiée, la créer
         if (request.getRelatedNodeId() != null && request.getRelationType() != null) {
@@ -66,20 +106,87 @@ public class NodeService {
                     .build();
 
             nodeRelationRepository.save(relation);
+            if (relation.getRelation() == NodeRelation.RelationType.CHILD) {
+                nodeClosureService.addChildRelation(relatedNode.getId(), node.getId());
+            }
+            eventPublisher.publishEvent(FamilyTreeEvent.relationAdded(NodeRelationDTO.builder()
+                    .node1(convertToDTO(relatedNode))
+                    .node2(nodeDTO)
+                    .relationType(relation.getRelation())
+                    .build()));
         }
 
         return node;
     }
 
-    public List<Node> getAllNodes() {
-        return nodeRepository.findAll();
+    // Page des nœuds de l'utilisateur courant, par clé : coût constant quelle que soit la profondeur de la page
+    public NodePageResponse getNodes(String cursor, Integer pageSize) {
+        int size = pageSize != null ? pageSize : defaultPageSize;
+        if (size < 1 || size > maxPageSize) {
+            throw NodeException.invalidInput("Page size must be between 1 and " + maxPageSize);
+        }
+
+        Long userId = getCurrentUserId();
+        List<Long> ids = nodeRepository.findIdsByUserIdAfter(userId, decodeCursor(cursor), PageRequest.of(0, size + 1));
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+
+        return NodePageResponse.builder()
+                .nodes(loadNodes(ids))
+                .nextCursor(hasMore ? encodeCursor(ids.get(ids.size() - 1)) : null)
+                .build();
+    }
+
+    // Parcours par lots de tous les nœuds d'un utilisateur (ou de tous les utilisateurs si userId est null),
+    // pour les traitements d'administration : une transaction courte par lot, mémoire bornée par batchSize
+    public void forEachNodeBatch(Long userId, int batchSize, Consumer<List<NodeDTO>> consumer) {
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = userId != null
+                    ? nodeRepository.findIdsByUserIdAfter(userId, afterId, PageRequest.of(0, batchSize))
+                    : nodeRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return;
+            }
+            consumer.accept(loadNodes(ids));
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<NodeDTO> loadNodes(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return nodeRepository.findAllWithInterestsByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Node::getId))
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Curseur opaque : dernier ID de la page précédente, encodé en base64url
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw NodeException.invalidInput("Invalid cursor");
+        }
     }
 
     public Node getNodeById(Long id) {
         if (id == null) {
             throw NodeException.invalidInput("Node ID cannot be null");
         }
-        return nodeRepository.findById(id)
+        return nodeRepository.findWithInterestsById(id)
                 .orElseThrow(() -> NodeException.notFound(id));
     }
 
@@ -118,7 +225,9 @@ public class NodeService {
         node.setInterests(request.getInterests());
         // node.setBaseNode(request.getBaseNode() != null ? request.getBaseNode() : node.isBaseNode());
 
-        return nodeRepository.save(node);
+        node = nodeRepository.save(node);
+        eventPublisher.publishEvent(FamilyTreeEvent.nodeUpdated(convertToDTO(node)));
+        return node;
     }
 
     private void validateNodeRequest(NodeUpdateRequest request) {
@@ -154,26 +263,23 @@ public class NodeService {
     }
 
     public Long getCurrentUserId() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        if (username == null) {
+        // Le principal est l'utilisateur déjà chargé par JwtAuthenticationFilter : aucune requête ici
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user) || user.getId() == null) {
             throw NodeException.unauthorized("Utilisateur non authentifié");
         }
-
-        // Le username est l'email de l'utilisateur
-        return userRepository.findByEmail(username)
-                .map(user -> user.getId())
-                .orElseThrow(() -> NodeException.unauthorized("Utilisateur non trouvé"));
+        return user.getId();
     }
 
     public List<Node> getDirectChildren(Node node) {
-        return nodeRelationRepository.findByNode1AndRelation(node, NodeRelation.RelationType.CHILD)
+        return findGeneration(List.of(node.getId()), false)
                 .stream()
                 .map(NodeRelation::getNode2)
                 .collect(Collectors.toList());
     }
 
     public List<Node> getDirectParents(Node node) {
-        return nodeRelationRepository.findByNode2AndRelation(node, NodeRelation.RelationType.CHILD)
+        return findGeneration(List.of(node.getId()), true)
                 .stream()
                 .map(NodeRelation::getNode1)
                 .collect(Collectors.toList());
@@ -186,117 +292,143 @@ public class NodeService {
             return Collections.emptyList();
         }
 
-        // Pour chaque parent, récupérer tous les enfants
-        return parents.stream()
-                .flatMap(parent -> getDirectChildren(parent).stream())
+        // Récupérer en une seule passe tous les enfants des parents
+        return findGeneration(idsOf(parents), false).stream()
+                .map(NodeRelation::getNode2)
                 .filter(sibling -> !sibling.getId().equals(node.getId())) // Exclure le nœud lui-même
                 .distinct() // Éviter les doublons si les deux parents sont connus
                 .collect(Collectors.toList());
     }
 
     public List<Node> getSpouses(Node node) {
-        return nodeRelationRepository.findByNode1AndRelation(node, NodeRelation.RelationType.SPOUSE)
+        return nodeRelationRepository.findWithNode2InterestsByNode1IdInAndRelation(List.of(node.getId()), NodeRelation.RelationType.SPOUSE)
                 .stream()
                 .map(NodeRelation::getNode2)
                 .collect(Collectors.toList());
     }
 
     public Set<NodeRelationDTO> getAllAncestorRelations(Node node) {
-        Set<NodeRelationDTO> relations = new HashSet<>();
-        getAllAncestorRelationsRecursive(node, relations);
-        return relations;
+        return familyGraphRegistry.getGraph(node.getId()).getAncestorRelations(node.getId());
     }
 
-    private void getAllAncestorRelationsRecursive(Node node, Set<NodeRelationDTO> relations) {
-        List<NodeRelation> parentRelations = nodeRelationRepository.findByNode2AndRelation(node, NodeRelation.RelationType.CHILD);
-        for (NodeRelation relation : parentRelations) {
-            NodeRelationDTO dto = NodeRelationDTO.builder()
-                    .node1(convertToDTO(relation.getNode1()))
-                    .node2(convertToDTO(relation.getNode2()))
-                    .relationType(relation.getRelation())
-                    .build();
-            if (relations.add(dto)) {
-                getAllAncestorRelationsRecursive(relation.getNode1(), relations);
-            }
-        }
+    public Set<NodeRelationDTO> getAllDescendantRelations(Node node) {
+        return familyGraphRegistry.getGraph(node.getId()).getDescendantRelations(node.getId());
     }
 
-    public Set<NodeRelationDTO> getAllDescendantRelations(Node node) {
-        Set<NodeRelationDTO> relations = new HashSet<>();
-        getAllDescendantRelationsRecursive(node, relations);
-        return relations;
+    public Set<NodeRelationDTO> getUncleAndAuntRelations(Node node) {
+        return familyGraphRegistry.getGraph(node.getId()).getUncleAndAuntRelations(node.getId());
     }
 
-    private void getAllDescendantRelationsRecursive(Node node, Set<NodeRelationDTO> relations) {
-        List<NodeRelation> childRelations = nodeRelationRepository.findByNode1AndRelation(node, NodeRelation.RelationType.CHILD);
-        for (NodeRelation relation : childRelations) {
-            NodeRelationDTO dto = NodeRelationDTO.builder()
-                    .node1(convertToDTO(relation.getNode1()))
-                    .node2(convertToDTO(relation.getNode2()))
-                    .relationType(relation.getRelation())
-                    .build();
-            if (relations.add(dto)) {
-                getAllDescendantRelationsRecursive(relation.getNode2(), relations);
-            }
+    public Set<NodeRelationDTO> getCousinRelations(Node node) {
+        return familyGraphRegistry.getGraph(node.getId()).getCousinRelations(node.getId());
+    }
+
+    public Set<NodeRelationDTO> getAllFamilyRelations(Node node) {
+        return computeFamilyRelations(node.getId());
+    }
+
+    // Chemin de parenté le plus court entre deux nœuds, calculé sur le graphe en mémoire.
+    // Le nœud de départ doit appartenir à l'arbre de l'utilisateur : un chemin reste dans sa composante.
+    public KinshipResponse getKinship(Long fromId, Long toId, Integer maxDepth) {
+        int depth = maxDepth != null ? maxDepth : kinshipMaxDepth;
+        if (depth < 1 || depth > kinshipMaxDepth) {
+            throw NodeException.invalidInput("maxDepth must be between 1 and " + kinshipMaxDepth);
         }
+        getFocusNode(fromId);
+        getNodeById(toId);
+
+        FamilyGraph graph = familyGraphRegistry.getGraph(fromId);
+        KinshipPath path = graph.contains(toId) ? graph.findKinshipPath(fromId, toId, depth) : null;
+        if (path == null) {
+            return KinshipResponse.builder().related(false).build();
+        }
+        Kinship kinship = Kinship.of(path);
+        return KinshipResponse.builder()
+                .related(true)
+                .label(kinship.getLabel())
+                .generationsUp(kinship.getGenerationsUp())
+                .generationsDown(kinship.getGenerationsDown())
+                .cousinDegree(kinship.getCousinDegree())
+                .removed(kinship.getRemoved())
+                .byMarriage(kinship.isByMarriage())
+                .path(path.getNodes())
+                .steps(path.getSteps())
+                .build();
     }
 
-    public Set<NodeRelationDTO> getUncleAndAuntRelations(Node node) {
-        Set<NodeRelationDTO> relations = new HashSet<>();
-        List<Node> parents = getDirectParents(node);
-        
-        for (Node parent : parents) {
-            List<Node> siblings = getSiblings(parent);
-            for (Node sibling : siblings) {
-                relations.add(NodeRelationDTO.builder()
-                        .node1(convertToDTO(parent))
-                        .node2(convertToDTO(sibling))
-                        .relationType(NodeRelation.RelationType.SIBLING)
-                        .build());
-            }
+    // Relations CHILD d'une génération : vers les parents (upward) ou vers les enfants, par lots IN.
+    // Les nœuds renvoyés (parents ou enfants) arrivent avec leurs centres d'intérêt : convertToDTO ne requête plus.
+    private List<NodeRelation> findGeneration(List<Long> nodeIds, boolean upward) {
+        List<NodeRelation> relations = new ArrayList<>();
+        for (int from = 0; from < nodeIds.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            List<Long> batch = nodeIds.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, nodeIds.size()));
+            relations.addAll(upward
+                    ? nodeRelationRepository.findWithNode1InterestsByNode2IdInAndRelation(batch, NodeRelation.RelationType.CHILD)
+                    : nodeRelationRepository.findWithNode2InterestsByNode1IdInAndRelation(batch, NodeRelation.RelationType.CHILD));
         }
-        
         return relations;
     }
 
-    public Set<NodeRelationDTO> getCousinRelations(Node node) {
-        Set<NodeRelationDTO> relations = new HashSet<>();
-        List<Node> parents = getDirectParents(node);
-        
-        for (Node parent : parents) {
-            List<Node> parentSiblings = getSiblings(parent);
-            for (Node parentSibling : parentSiblings) {
-                relations.addAll(getAllDescendantRelations(parentSibling));
-            }
-        }
-        
+    private List<Long> idsOf(List<Node> nodes) {
+        return nodes.stream()
+                .map(Node::getId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    // Relations familiales du nœud de base de l'utilisateur courant, servies depuis le cache
+    public FamilyRelationsCache.Entry getCachedFamilyRelations() {
+        Long userId = getCurrentUserId();
+        Long baseNodeId = familyRelationsCache.getBaseNodeId(userId, () -> getBaseNode(userId).getId());
+        return familyRelationsCache.get(baseNodeId, () -> computeFamilyRelations(baseNodeId));
+    }
+
+    // Relations complètes du nœud, avec les mesures du calcul : requêtes et entités chargées
+    // (graphe froid uniquement), taille du graphe, générations couvertes et nombre de relations
+    private Set<NodeRelationDTO> computeFamilyRelations(Long nodeId) {
+        QueryCounter.Snapshot start = queryCounter.snapshot();
+        FamilyGraph graph = familyGraphRegistry.getGraph(nodeId);
+        Set<NodeRelationDTO> relations = graph.getFamilyRelations(nodeId);
+        nodeMetrics.recordFamilyRelations(queryCounter.since(start), graph.size(),
+                graph.getGenerationDepth(nodeId), relations.size());
         return relations;
     }
 
-    public Set<NodeRelationDTO> getAllFamilyRelations(Node node) {
-        Set<NodeRelationDTO> allRelations = new HashSet<>();
-        
-        allRelations.addAll(getAllAncestorRelations(node));
-        allRelations.addAll(getAllDescendantRelations(node));
-        allRelations.addAll(getUncleAndAuntRelations(node));
-        allRelations.addAll(getCousinRelations(node));
-        
-        List<NodeRelation> spouseRelations = nodeRelationRepository.findByNode1AndRelation(node, NodeRelation.RelationType.SPOUSE);
-        spouseRelations.addAll(nodeRelationRepository.findByNode2AndRelation(node, NodeRelation.RelationType.SPOUSE));
-
-        allRelations.addAll(spouseRelations.stream()
-            .map(relation -> NodeRelationDTO.builder()
-                .node1(convertToDTO(relation.getNode1()))
-                .node2(convertToDTO(relation.getNode2()))
-                .relationType(relation.getRelation())
-                .build())
-            .collect(Collectors.toSet()));
-        
-        return allRelations;
+    // Nœud central d'une vue : il doit appartenir à la même composante qu'un nœud de l'utilisateur courant
+    public Node getFocusNode(Long focusId) {
+        Node focus = getNodeById(focusId);
+        if (!familyGraphRegistry.findOwnerIds(List.of(focus.getId())).contains(getCurrentUserId())) {
+            throw NodeException.unauthorized("Ce nœud ne fait pas partie de votre arbre");
+        }
+        return focus;
+    }
+
+    // Vue limitée à une fenêtre de générations autour du nœud de base ou d'un autre nœud (focus, déjà vérifié
+    // par getFocusNode). Paramètres absents : générations non limitées, tous les types de relations.
+    public Set<NodeRelationDTO> getFamilyRelations(Node focus, Integer generationsUp, Integer generationsDown,
+                                                   Set<FamilyWindow.Kind> kinds) {
+        if ((generationsUp != null && generationsUp < 0) || (generationsDown != null && generationsDown < 0)) {
+            throw NodeException.invalidInput("generationsUp and generationsDown must be positive or zero");
+        }
+        Long nodeId;
+        if (focus != null) {
+            nodeId = focus.getId();
+        } else {
+            Long userId = getCurrentUserId();
+            nodeId = familyRelationsCache.getBaseNodeId(userId, () -> getBaseNode(userId).getId());
+        }
+        FamilyWindow window = new FamilyWindow(
+                generationsUp != null ? generationsUp : Integer.MAX_VALUE,
+                generationsDown != null ? generationsDown : Integer.MAX_VALUE,
+                kinds == null || kinds.isEmpty() ? EnumSet.allOf(FamilyWindow.Kind.class) : EnumSet.copyOf(kinds));
+        return familyGraphRegistry.getGraph(nodeId).getFamilyRelations(nodeId, window);
     }
 
     public Node getBaseNode() {
-        Long userId = getCurrentUserId();
+        return getBaseNode(getCurrentUserId());
+    }
+
+    private Node getBaseNode(Long userId) {
         List<Node> baseNodes = nodeRepository.findByUserIdAndBaseNodeIsTrue(userId);
         if (baseNodes.isEmpty()) {
             throw NodeException.invalidInput("Nœud de base non trouvé pour l'utilisateur");
@@ -322,20 +454,8 @@ public class NodeService {
         }
     }
 
-    private NodeDTO convertToDTO(Node node) {
-        return NodeDTO.builder()
-                .id(node.getId())
-                .title(node.getTitle())
-                .firstName(node.getFirstName())
-                .lastName(node.getLastName())
-                .birthDate(node.getBirthDate())
-                .gender(node.getGender())
-                .address(node.getAddress())
-                .phone(node.getPhone())
-                .interests(node.getInterests())
-                .userId(node.getUserId())
-                .baseNode(node.isBaseNode())
-                .build();
+    public NodeDTO convertToDTO(Node node) {
+        return NodeDTO.from(node);
     }
 
 } 
\ No newline at end of file
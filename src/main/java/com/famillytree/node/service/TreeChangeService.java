@@ -0,0 +1,111 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.TreeChangeDTO;
+import com.famillytree.node.dto.TreeChangesResponse;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.model.FamilyTreeChange;
+import com.famillytree.node.repository.FamilyTreeChangeRepository;
+import com.famillytree.node.repository.NodeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Lecture du journal des modifications : synchronisation incrémentale des clients
+@Service
+@RequiredArgsConstructor
+public class TreeChangeService {
+
+    private static final Set<FamilyTreeEvent.Type> NODE_CHANGES =
+            Set.of(FamilyTreeEvent.Type.NODE_CREATED, FamilyTreeEvent.Type.NODE_UPDATED, FamilyTreeEvent.Type.NODE_MERGED);
+
+    private final FamilyTreeChangeRepository familyTreeChangeRepository;
+    private final NodeRepository nodeRepository;
+    private final NodeService nodeService;
+    private final TreeVersionService treeVersionService;
+
+    @Value("${familytree.changes.page-size.default:200}")
+    private int defaultPageSize;
+
+    @Value("${familytree.changes.page-size.max:1000}")
+    private int maxPageSize;
+
+    // Sans curseur : aucune modification, seulement le curseur de la version courante,
+    // à utiliser après un chargement complet de l'arbre
+    @Transactional(readOnly = true)
+    public TreeChangesResponse getChanges(String since, Integer pageSize) {
+        int size = pageSize != null ? pageSize : defaultPageSize;
+        if (size < 1 || size > maxPageSize) {
+            throw NodeException.invalidInput("Page size must be between 1 and " + maxPageSize);
+        }
+
+        Long userId = nodeService.getCurrentUserId();
+        if (!StringUtils.hasText(since)) {
+            return TreeChangesResponse.builder()
+                    .changes(List.of())
+                    .cursor(encodeCursor(treeVersionService.getVersion(userId)))
+                    .build();
+        }
+
+        long version = decodeCursor(since);
+        List<FamilyTreeChange> changes = familyTreeChangeRepository
+                .findByUserIdAndVersionGreaterThanOrderByVersionAsc(userId, version, PageRequest.of(0, size + 1));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+
+        // État actuel des nœuds modifiés, en une requête
+        Map<Long, NodeDTO> nodes = new HashMap<>();
+        List<Long> nodeIds = changes.stream()
+                .filter(change -> NODE_CHANGES.contains(change.getType()))
+                .map(FamilyTreeChange::getNodeId)
+                .distinct()
+                .collect(Collectors.toList());
+        if (!nodeIds.isEmpty()) {
+            nodeRepository.findAllWithInterestsByIdIn(nodeIds).forEach(node -> nodes.put(node.getId(), NodeDTO.from(node)));
+        }
+
+        return TreeChangesResponse.builder()
+                .changes(changes.stream()
+                        .map(change -> TreeChangeDTO.builder()
+                                .type(change.getType())
+                                .nodeId(change.getNodeId())
+                                .relatedNodeId(change.getRelatedNodeId())
+                                .relationType(change.getRelationType())
+                                .node(NODE_CHANGES.contains(change.getType()) ? nodes.get(change.getNodeId()) : null)
+                                .changedAt(change.getChangedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .cursor(encodeCursor(changes.isEmpty() ? version : changes.get(changes.size() - 1).getVersion()))
+                .hasMore(hasMore)
+                .resyncRequired(changes.stream().anyMatch(change -> change.getType() == FamilyTreeEvent.Type.TREE_IMPORTED))
+                .build();
+    }
+
+    // Curseur opaque : version de l'arbre déjà connue du client, encodée en base64url
+    public static String encodeCursor(long version) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw NodeException.invalidInput("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.gedcom.GedcomWriter;
+import com.famillytree.node.model.Gender;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Export de l'arbre (composante connexe du nœud de base) lu par curseur JDBC et écrit au fil de l'eau :
+// seul le nœud ou la famille en cours d'écriture est en mémoire
+@Service
+public class TreeExportService {
+
+    private static final String COMPONENT_CTE = """
+            WITH RECURSIVE component(node_id) AS (
+                SELECT CAST(? AS BIGINT)
+                UNION
+                SELECT CASE WHEN r.node1_id = c.node_id THEN r.node2_id ELSE r.node1_id END
+                FROM node_relations r
+                JOIN component c ON c.node_id = r.node1_id OR c.node_id = r.node2_id
+            )""";
+
+    // Une ligne par centre d'intérêt : les lignes d'un même nœud sont consécutives
+    private static final String NODES_SQL = COMPONENT_CTE + """
+
+            SELECT n.id, n.title, n.first_name, n.last_name, n.birth_date, n.gender, n.address, n.phone,
+                   n.user_id, n.base_node, i.interest
+            FROM component c
+            JOIN nodes n ON n.id = c.node_id
+            LEFT JOIN node_interests i ON i.node_id = n.id
+            ORDER BY n.id""";
+
+    private static final String RELATIONS_SQL = COMPONENT_CTE + """
+
+            SELECT r.node1_id, r.node2_id, r.relation
+            FROM node_relations r
+            WHERE r.node1_id IN (SELECT node_id FROM component)
+            ORDER BY r.id""";
+
+    // Familles GEDCOM : enfants regroupés par couple de parents, puis couples sans enfant.
+    // Les lignes d'une même famille sont consécutives.
+    private static final String FAMILIES_SQL = COMPONENT_CTE + """
+            ,
+            child_parents AS (
+                SELECT r.node2_id AS child_id,
+                       MIN(r.node1_id) AS parent1_id,
+                       CASE WHEN COUNT(DISTINCT r.node1_id) > 1 THEN MAX(r.node1_id) END AS parent2_id
+                FROM node_relations r
+                WHERE r.relation = 'CHILD' AND r.node2_id IN (SELECT node_id FROM component)
+                GROUP BY r.node2_id
+            ),
+            families AS (
+                SELECT parent1_id, parent2_id, child_id FROM child_parents
+                UNION ALL
+                SELECT DISTINCT LEAST(r.node1_id, r.node2_id), GREATEST(r.node1_id, r.node2_id), CAST(NULL AS BIGINT)
+                FROM node_relations r
+                WHERE r.relation = 'SPOUSE' AND r.node1_id IN (SELECT node_id FROM component)
+                  AND NOT EXISTS (SELECT 1 FROM child_parents p
+                                  WHERE p.parent1_id = LEAST(r.node1_id, r.node2_id)
+                                    AND p.parent2_id = GREATEST(r.node1_id, r.node2_id))
+            )
+            SELECT f.parent1_id, p1.gender AS parent1_gender, f.parent2_id, p2.gender AS parent2_gender, f.child_id
+            FROM families f
+            JOIN nodes p1 ON p1.id = f.parent1_id
+            LEFT JOIN nodes p2 ON p2.id = f.parent2_id
+            ORDER BY f.parent1_id, f.parent2_id NULLS FIRST, f.child_id NULLS FIRST""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter objectWriter;
+    private final NodeService nodeService;
+
+    public TreeExportService(DataSource dataSource,
+                             ObjectMapper objectMapper,
+                             NodeService nodeService,
+                             @Value("${familytree.export.fetch-size:1000}") int fetchSize) {
+        // Dans une transaction, le pilote PostgreSQL lit par curseur, fetchSize lignes à la fois
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.nodeService = nodeService;
+    }
+
+    // Résolu dans le thread de la requête, avant que l'écriture ne parte en asynchrone
+    public Long getBaseNodeId() {
+        return nodeService.getBaseNode().getId();
+    }
+
+    @Transactional(readOnly = true)
+    public void writeNdjson(Long baseNodeId, OutputStream output) throws IOException {
+        try (JsonGenerator generator = objectWriter.getFactory().createGenerator(output)) {
+            streamNodes(baseNodeId, node -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", "node");
+                generator.writeFieldName("data");
+                objectWriter.writeValue(generator, node);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+            jdbcTemplate.query(RELATIONS_SQL, rs -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("type", "relation");
+                    generator.writeObjectFieldStart("data");
+                    generator.writeNumberField("node1Id", rs.getLong("node1_id"));
+                    generator.writeNumberField("node2Id", rs.getLong("node2_id"));
+                    generator.writeStringField("relationType", rs.getString("relation"));
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, baseNodeId);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeGedcom(Long baseNodeId, OutputStream output) throws IOException {
+        GedcomWriter writer = new GedcomWriter(output);
+        writer.writeHeader();
+        streamNodes(baseNodeId, writer::writeIndividual);
+
+        FamilyAccumulator family = new FamilyAccumulator(writer);
+        jdbcTemplate.query(FAMILIES_SQL, rs -> {
+            try {
+                family.accept(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, baseNodeId);
+        family.flush();
+        writer.writeTrailer();
+    }
+
+    // Regroupe les lignes consécutives d'un même nœud (une par centre d'intérêt) en un NodeDTO
+    private void streamNodes(Long baseNodeId, NodeConsumer consumer) throws IOException {
+        NodeDTO[] current = new NodeDTO[1];
+        jdbcTemplate.query(NODES_SQL, rs -> {
+            long id = rs.getLong("id");
+            if (current[0] == null || current[0].getId() != id) {
+                emit(current[0], consumer);
+                current[0] = toNode(rs);
+            }
+            String interest = rs.getString("interest");
+            if (interest != null) {
+                current[0].getInterests().add(interest);
+            }
+        }, baseNodeId);
+        emit(current[0], consumer);
+    }
+
+    private void emit(NodeDTO node, NodeConsumer consumer) {
+        if (node == null) {
+            return;
+        }
+        try {
+            consumer.accept(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private NodeDTO toNode(ResultSet rs) throws SQLException {
+        Date birthDate = rs.getDate("birth_date");
+        String gender = rs.getString("gender");
+        return NodeDTO.builder()
+                .id(rs.getLong("id"))
+                .title(rs.getString("title"))
+                .firstName(rs.getString("first_name"))
+                .lastName(rs.getString("last_name"))
+                .birthDate(birthDate != null ? birthDate.toLocalDate() : null)
+                .gender(gender != null ? Gender.valueOf(gender) : null)
+                .address(rs.getString("address"))
+                .phone(rs.getString("phone"))
+                .interests(new ArrayList<>())
+                .userId(rs.getLong("user_id"))
+                .baseNode(rs.getBoolean("base_node"))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface NodeConsumer {
+        void accept(NodeDTO node) throws IOException;
+    }
+
+    // Famille GEDCOM en cours : écrite dès que la clé (parent1, parent2) change
+    private static class FamilyAccumulator {
+        private final GedcomWriter writer;
+        private final List<Long> childIds = new ArrayList<>();
+        private long familyCount;
+        private Long parent1Id;
+        private String parent1Gender;
+        private Long parent2Id;
+        private String parent2Gender;
+
+        FamilyAccumulator(GedcomWriter writer) {
+            this.writer = writer;
+        }
+
+        void accept(ResultSet rs) throws SQLException, IOException {
+            long rowParent1Id = rs.getLong("parent1_id");
+            Long rowParent2Id = rs.getObject("parent2_id", Long.class);
+            if (parent1Id == null || parent1Id != rowParent1Id || !Objects.equals(parent2Id, rowParent2Id)) {
+                flush();
+                parent1Id = rowParent1Id;
+                parent1Gender = rs.getString("parent1_gender");
+                parent2Id = rowParent2Id;
+                parent2Gender = rs.getString("parent2_gender");
+            }
+            Long childId = rs.getObject("child_id", Long.class);
+            if (childId != null) {
+                childIds.add(childId);
+            }
+        }
+
+        void flush() throws IOException {
+            if (parent1Id == null) {
+                return;
+            }
+            boolean parent1Female = Gender.FEMALE.name().equals(parent1Gender);
+            boolean parent2Female = Gender.FEMALE.name().equals(parent2Gender);
+            if (parent2Id == null) {
+                writer.writeFamily(++familyCount, parent1Female ? null : parent1Id, parent1Female ? parent1Id : null, childIds);
+            } else if (parent1Female && !parent2Female) {
+                writer.writeFamily(++familyCount, parent2Id, parent1Id, childIds);
+            } else {
+                writer.writeFamily(++familyCount, parent1Id, parent2Id, childIds);
+            }
+            childIds.clear();
+            parent1Id = null;
+        }
+    }
+}
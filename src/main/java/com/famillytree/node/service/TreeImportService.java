@@ -0,0 +1,194 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.TreeImportRequest;
+import com.famillytree.node.dto.TreeImportResponse;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.model.NodeRelation;
+import com.famillytree.node.repository.NodeRelationRepository;
+import com.famillytree.node.repository.NodeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Import d'un arbre complet en une transaction : IDs tirés de la séquence par blocs,
+// insertions regroupées en lots JDBC et contexte de persistance vidé à chaque lot
+@Service
+@RequiredArgsConstructor
+public class TreeImportService {
+
+    private final NodeRepository nodeRepository;
+    private final NodeRelationRepository nodeRelationRepository;
+    private final NodeService nodeService;
+    private final NodeClosureService nodeClosureService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+
+    @Value("${familytree.import.max-nodes:10000}")
+    private int maxNodes;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int batchSize;
+
+    @Transactional
+    public TreeImportResponse importTree(TreeImportRequest request) {
+        validateImportRequest(request);
+        List<TreeImportRequest.ImportedRelation> relations =
+                request.getRelations() != null ? request.getRelations() : List.of();
+
+        Long userId = nodeService.getCurrentUserId();
+        validateBaseNodeConstraint(userId, request.getNodes());
+        Set<Long> existingNodeIds = findReferencedNodeIds(relations);
+
+        Map<String, Long> idsByRef = new LinkedHashMap<>();
+        int pending = 0;
+        for (TreeImportRequest.ImportedNode imported : request.getNodes()) {
+            Node node = nodeRepository.save(Node.builder()
+                    .title(imported.getTitle())
+                    .firstName(imported.getFirstName())
+                    .lastName(imported.getLastName())
+                    .birthDate(imported.getBirthDate())
+                    .gender(imported.getGender())
+                    .address(imported.getAddress())
+                    .phone(imported.getPhone())
+                    .interests(imported.getInterests() != null ? new ArrayList<>(imported.getInterests()) : null)
+                    .userId(userId)
+                    .baseNode(Boolean.TRUE.equals(imported.getBaseNode()))
+                    .build());
+            idsByRef.put(imported.getRef(), node.getId());
+            pending = flushIfFull(pending + 1);
+        }
+
+        List<long[]> childRelations = new ArrayList<>();
+        for (TreeImportRequest.ImportedRelation imported : relations) {
+            Long node1Id = resolve(imported.getNode1Ref(), imported.getNode1Id(), idsByRef);
+            Long node2Id = resolve(imported.getNode2Ref(), imported.getNode2Id(), idsByRef);
+            nodeRelationRepository.save(NodeRelation.builder()
+                    .node1(nodeRepository.getReferenceById(node1Id))
+                    .node2(nodeRepository.getReferenceById(node2Id))
+                    .relation(imported.getRelationType())
+                    .build());
+            if (imported.getRelationType() == NodeRelation.RelationType.CHILD) {
+                childRelations.add(new long[]{node1Id, node2Id});
+            }
+            pending = flushIfFull(pending + 1);
+        }
+        nodeClosureService.addChildRelations(childRelations);
+
+        List<Long> touchedNodeIds = new ArrayList<>(idsByRef.values());
+        touchedNodeIds.addAll(existingNodeIds);
+        eventPublisher.publishEvent(FamilyTreeEvent.treeImported(userId, touchedNodeIds, new ArrayList<>(existingNodeIds)));
+
+        return TreeImportResponse.builder()
+                .nodeIds(idsByRef)
+                .nodeCount(idsByRef.size())
+                .relationCount(relations.size())
+                .build();
+    }
+
+    private int flushIfFull(int pending) {
+        if (pending < batchSize) {
+            return pending;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return 0;
+    }
+
+    private Long resolve(String ref, Long nodeId, Map<String, Long> idsByRef) {
+        return StringUtils.hasText(ref) ? idsByRef.get(ref) : nodeId;
+    }
+
+    // Vérifie en une requête que les nœuds existants référencés par les relations existent
+    private Set<Long> findReferencedNodeIds(List<TreeImportRequest.ImportedRelation> relations) {
+        Set<Long> nodeIds = new HashSet<>();
+        for (TreeImportRequest.ImportedRelation relation : relations) {
+            if (!StringUtils.hasText(relation.getNode1Ref())) {
+                nodeIds.add(relation.getNode1Id());
+            }
+            if (!StringUtils.hasText(relation.getNode2Ref())) {
+                nodeIds.add(relation.getNode2Id());
+            }
+        }
+        if (nodeIds.isEmpty()) {
+            return nodeIds;
+        }
+        Set<Long> missing = new HashSet<>(nodeIds);
+        nodeRepository.findExistingIds(nodeIds).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw NodeException.notFound(missing.iterator().next());
+        }
+        return nodeIds;
+    }
+
+    private void validateBaseNodeConstraint(Long userId, List<TreeImportRequest.ImportedNode> nodes) {
+        long baseNodes = nodes.stream().filter(node -> Boolean.TRUE.equals(node.getBaseNode())).count();
+        if (baseNodes > 1 || (baseNodes == 1 && !nodeRepository.findByUserIdAndBaseNodeIsTrue(userId).isEmpty())) {
+            throw NodeException.invalidInput("Un utilisateur ne peut avoir qu'un seul nœud de base");
+        }
+    }
+
+    private void validateImportRequest(TreeImportRequest request) {
+        if (request == null || request.getNodes() == null || request.getNodes().isEmpty()) {
+            throw NodeException.invalidInput("At least one node is required");
+        }
+        if (request.getNodes().size() > maxNodes) {
+            throw NodeException.invalidInput("An import cannot contain more than " + maxNodes + " nodes");
+        }
+
+        Set<String> refs = new HashSet<>();
+        for (TreeImportRequest.ImportedNode node : request.getNodes()) {
+            if (!StringUtils.hasText(node.getRef())) {
+                throw NodeException.invalidInput("Reference is required");
+            }
+            if (!refs.add(node.getRef())) {
+                throw NodeException.invalidInput("Duplicate reference: " + node.getRef());
+            }
+            if (!StringUtils.hasText(node.getFirstName())) {
+                throw NodeException.invalidInput("First name is required (node " + node.getRef() + ")");
+            }
+            if (!StringUtils.hasText(node.getLastName())) {
+                throw NodeException.invalidInput("Last name is required (node " + node.getRef() + ")");
+            }
+            if (node.getBirthDate() == null) {
+                throw NodeException.invalidInput("Birth date is required (node " + node.getRef() + ")");
+            }
+            if (node.getGender() == null) {
+                throw NodeException.invalidInput("Gender is required (node " + node.getRef() + ")");
+            }
+        }
+
+        if (request.getRelations() == null) {
+            return;
+        }
+        for (TreeImportRequest.ImportedRelation relation : request.getRelations()) {
+            if (relation.getRelationType() == null) {
+                throw NodeException.invalidInput("Relation type is required");
+            }
+            validateRelationEnd(relation.getNode1Ref(), relation.getNode1Id(), refs);
+            validateRelationEnd(relation.getNode2Ref(), relation.getNode2Id(), refs);
+        }
+    }
+
+    private void validateRelationEnd(String ref, Long nodeId, Set<String> refs) {
+        if (StringUtils.hasText(ref)) {
+            if (!refs.contains(ref)) {
+                throw NodeException.invalidInput("Unknown node reference: " + ref);
+            }
+        } else if (nodeId == null) {
+            throw NodeException.invalidInput("Each relation end needs a node reference or an existing node ID");
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.event.TreeChangedEvent;
+import com.famillytree.node.exception.NodeException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Flux SSE des modifications, par utilisateur. Une connexion inactive n'occupe aucun thread
+// (requête asynchrone) : seul l'émetteur est conservé dans le registre.
+// Les modifications sont poussées après validation, depuis l'exécuteur de tâches.
+@Service
+public class TreeUpdatesService {
+
+    private final TreeVersionService treeVersionService;
+    private final NodeService nodeService;
+    private final TaskExecutor taskExecutor;
+    private final long timeoutMillis;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+
+    private final Map<Long, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public TreeUpdatesService(TreeVersionService treeVersionService,
+                              NodeService nodeService,
+                              TaskExecutor taskExecutor,
+                              @Value("${familytree.sse.timeout:PT30M}") Duration timeout,
+                              @Value("${familytree.sse.max-connections:50000}") int maxConnections,
+                              @Value("${familytree.sse.max-connections-per-user:10}") int maxConnectionsPerUser) {
+        this.treeVersionService = treeVersionService;
+        this.nodeService = nodeService;
+        this.taskExecutor = taskExecutor;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    // Le premier événement donne le curseur courant : le client rattrape ce qu'il a manqué
+    // avec GET /api/nodes/changes puis applique les événements suivants
+    public SseEmitter subscribe() {
+        Long userId = nodeService.getCurrentUserId();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emittersByUser.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> registered = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            if (registered.size() >= maxConnectionsPerUser || connections.get() >= maxConnections) {
+                throw NodeException.invalidInput("Trop de connexions ouvertes");
+            }
+            registered.add(emitter);
+            connections.incrementAndGet();
+            return registered;
+        });
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitter.complete());
+
+        String cursor = TreeChangeService.encodeCursor(treeVersionService.getVersion(userId));
+        send(emitter, SseEmitter.event().id(cursor).name("connected").data(cursor).build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTreeChanged(TreeChangedEvent event) {
+        Set<SseEmitter> emitters = emittersByUser.get(event.getUserId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        // Message construit une fois pour tous les émetteurs de l'utilisateur
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .id(TreeChangeService.encodeCursor(event.getVersion()))
+                .name("tree-change")
+                .data(event.getChange(), MediaType.APPLICATION_JSON)
+                .build();
+        taskExecutor.execute(() -> emitters.forEach(emitter -> send(emitter, message)));
+    }
+
+    // Commentaire périodique : garde les connexions ouvertes à travers les proxys et détecte les clients partis
+    @Scheduled(fixedDelayString = "${familytree.sse.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        emittersByUser.values().forEach(emitters -> emitters.forEach(emitter -> send(emitter, ping)));
+    }
+
+    private void send(SseEmitter emitter, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        try {
+            emitter.send(message);
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté : l'émetteur est retiré par onCompletion
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
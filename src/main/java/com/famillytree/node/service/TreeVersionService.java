@@ -0,0 +1,204 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.TreeChangeDTO;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.event.TreeChangedEvent;
+import com.famillytree.node.graph.FamilyGraphRegistry;
+import com.famillytree.node.model.FamilyTreeVersion;
+import com.famillytree.node.model.NodeRelation;
+import com.famillytree.node.repository.FamilyTreeVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Versions des arbres, par utilisateur : chaque écriture incrémente la version de tous les propriétaires
+// de nœuds des composantes touchées et ajoute ses modifications à leur journal. Les propriétaires sont collectés
+// pendant la transaction puis incrémentés une seule fois chacun juste avant la validation, en ordre croissant :
+// les verrous de ligne pris par l'incrément ordonnent les versions d'un utilisateur dans l'ordre de validation
+// des transactions, sans interblocage entre deux écritures qui touchent les mêmes arbres.
+@Service
+@RequiredArgsConstructor
+public class TreeVersionService {
+
+    // Avance la version d'autant de modifications qu'en ajoute la transaction et retourne la dernière
+    private static final String INCREMENT_SQL = """
+            INSERT INTO family_tree_versions (user_id, version) VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE SET version = family_tree_versions.version + EXCLUDED.version
+            RETURNING version
+            """;
+
+    private static final String INSERT_CHANGE_SQL = """
+            INSERT INTO family_tree_changes (user_id, version, type, node_id, related_node_id, relation_type, changed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final Object PENDING_CHANGES_KEY = TreeVersionService.class.getName() + ".pendingChanges";
+
+    private final FamilyTreeVersionRepository familyTreeVersionRepository;
+    private final FamilyGraphRegistry familyGraphRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public long getVersion(Long userId) {
+        if (userId == null) {
+            return 0L;
+        }
+        return familyTreeVersionRepository.findById(userId)
+                .map(FamilyTreeVersion::getVersion)
+                .orElse(0L);
+    }
+
+    // ETag fort : propriétaire de l'arbre, version, et variante de la représentation (paramètres, format)
+    public String getETag(Long userId, int variant) {
+        return "\"" + userId + "-" + getVersion(userId) + "-" + Integer.toHexString(variant) + "\"";
+    }
+
+    // Exécuté à la publication, dans la transaction de l'écriture : collecte seulement les propriétaires touchés
+    @EventListener
+    @Transactional
+    public void onFamilyTreeEvent(FamilyTreeEvent event) {
+        PendingChanges pending = pendingChanges();
+        Set<Long> ownerIds = new HashSet<>();
+        List<Long> roots = new ArrayList<>();
+
+        switch (event.getType()) {
+            case NODE_CREATED -> {
+                pending.createdNodeIds.add(event.getNode().getId());
+                addOwner(ownerIds, event.getNode());
+            }
+            case NODE_UPDATED -> roots.add(event.getNode().getId());
+            case NODE_MERGED -> {
+                addOwner(ownerIds, event.getNode());
+                roots.add(event.getNode().getId());
+                roots.add(event.getRemovedNodeId());
+            }
+            case RELATION_ADDED -> {
+                for (NodeDTO node : List.of(event.getRelation().getNode1(), event.getRelation().getNode2())) {
+                    if (pending.createdNodeIds.contains(node.getId())) {
+                        addOwner(ownerIds, node);
+                    } else {
+                        roots.add(node.getId());
+                    }
+                }
+            }
+            case TREE_IMPORTED -> {
+                ownerIds.add(event.getUserId());
+                roots.addAll(event.getLinkedNodeIds());
+            }
+        }
+        if (!roots.isEmpty()) {
+            ownerIds.addAll(familyGraphRegistry.findOwnerIds(roots));
+        }
+
+        TreeChangeDTO change = toChange(event);
+        for (Long ownerId : ownerIds) {
+            pending.add(ownerId, change);
+        }
+    }
+
+    // Juste avant la validation : un incrément par propriétaire, dans l'ordre croissant des identifiants,
+    // puis une ligne de journal par modification, aux versions réservées par l'incrément
+    private void recordChanges(PendingChanges pending) {
+        pending.changesByOwner.forEach((ownerId, changes) -> {
+            Long version = jdbcTemplate.queryForObject(INCREMENT_SQL, Long.class, ownerId, changes.size());
+            long firstVersion = version - changes.size() + 1;
+            List<Object[]> rows = new ArrayList<>(changes.size());
+            for (int i = 0; i < changes.size(); i++) {
+                TreeChangeDTO change = changes.get(i);
+                rows.add(new Object[]{ownerId, firstVersion + i, change.getType().name(), change.getNodeId(),
+                        change.getRelatedNodeId(), change.getRelationType() != null ? change.getRelationType().name() : null,
+                        Timestamp.valueOf(change.getChangedAt())});
+            }
+            jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, rows);
+            for (int i = 0; i < changes.size(); i++) {
+                eventPublisher.publishEvent(new TreeChangedEvent(ownerId, firstVersion + i, changes.get(i)));
+            }
+        });
+    }
+
+    private TreeChangeDTO toChange(FamilyTreeEvent event) {
+        TreeChangeDTO change = TreeChangeDTO.builder()
+                .type(event.getType())
+                .nodeId(event.getNode() != null ? event.getNode().getId() : null)
+                .relatedNodeId(event.getRemovedNodeId())
+                .changedAt(LocalDateTime.now())
+                .build();
+        if (event.getRelation() != null) {
+            change.setNodeId(event.getRelation().getNode1().getId());
+            change.setRelatedNodeId(event.getRelation().getNode2().getId());
+            change.setRelationType(event.getRelation().getRelationType());
+        }
+        return change;
+    }
+
+    private void addOwner(Set<Long> ownerIds, NodeDTO node) {
+        if (node.getUserId() != null) {
+            ownerIds.add(node.getUserId());
+        }
+    }
+
+    // Modifications de la transaction en cours, écrites par sa synchronisation avant la validation
+    private PendingChanges pendingChanges() {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            PendingChanges created = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    recordChanges(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private static class PendingChanges {
+
+        // Nœuds créés dans la transaction : leur composante se limite à eux-mêmes
+        private final Set<Long> createdNodeIds = new HashSet<>();
+        // Trié par propriétaire : ordre des verrous
+        private final Map<Long, List<TreeChangeDTO>> changesByOwner = new TreeMap<>();
+        private final Set<ChangeKey> recorded = new HashSet<>();
+
+        // Une modification identique n'est journalisée qu'une fois par propriétaire, et la mise à jour
+        // d'un nœud déjà créé ou modifié dans la transaction est inutile : le journal renvoie son état courant
+        void add(Long ownerId, TreeChangeDTO change) {
+            if (change.getType() == FamilyTreeEvent.Type.NODE_UPDATED
+                    && (recorded.contains(new ChangeKey(ownerId, FamilyTreeEvent.Type.NODE_CREATED, change.getNodeId(), null, null))
+                    || recorded.contains(new ChangeKey(ownerId, FamilyTreeEvent.Type.NODE_UPDATED, change.getNodeId(), null, null)))) {
+                return;
+            }
+            if (recorded.add(new ChangeKey(ownerId, change.getType(), change.getNodeId(), change.getRelatedNodeId(),
+                    change.getRelationType()))) {
+                changesByOwner.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(change);
+            }
+        }
+    }
+
+    private record ChangeKey(Long ownerId, FamilyTreeEvent.Type type, Long nodeId, Long relatedNodeId,
+                             NodeRelation.RelationType relationType) {
+    }
+}
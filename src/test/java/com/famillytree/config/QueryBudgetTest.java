@@ -0,0 +1,97 @@
+package com.famillytree.config;
+
+import com.famillytree.node.exception.NodeException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetTest {
+
+    @Test
+    void statementsWithinBudgetAreOnlyCounted() {
+        QueryBudget budget = new QueryBudget(3, 10, 5, true);
+
+        budget.onStatement("select 1");
+        budget.onStatement("select 2");
+        budget.onStatement("select 3");
+        budget.onEntity();
+
+        assertThat(budget.getStatements()).isEqualTo(3);
+        assertThat(budget.getEntities()).isEqualTo(1);
+        assertThat(budget.getViolation()).isNull();
+    }
+
+    @Test
+    void rejectsTheStatementOverTheBudget() {
+        QueryBudget budget = new QueryBudget(2, 10, 5, true);
+        budget.onStatement("select 1");
+        budget.onStatement("select 2");
+
+        assertThatThrownBy(() -> budget.onStatement("select 3"))
+                .isInstanceOf(NodeException.class)
+                .extracting("errorCode").isEqualTo("NODE_005");
+        assertThat(budget.getViolation()).startsWith("3 SQL statements (budget 2)");
+    }
+
+    @Test
+    void rejectsTheEntityOverTheBudget() {
+        QueryBudget budget = new QueryBudget(10, 2, 5, true);
+        budget.onEntity();
+        budget.onEntity();
+
+        assertThatThrownBy(budget::onEntity).isInstanceOf(NodeException.class);
+        assertThat(budget.getViolation()).isEqualTo("3 entities loaded (budget 2)");
+    }
+
+    @Test
+    void detectsTheSameStatementRepeatedAsNPlusOne() {
+        QueryBudget budget = new QueryBudget(100, 100, 2, true);
+        String lazyLoad = "select i.node_id, i.interest\n  from node_interests i where i.node_id=?";
+        budget.onStatement(lazyLoad);
+        budget.onStatement("select n.id from nodes n where n.user_id=?");
+        budget.onStatement(lazyLoad);
+
+        assertThatThrownBy(() -> budget.onStatement(lazyLoad)).isInstanceOf(NodeException.class);
+        assertThat(budget.getViolation())
+                .startsWith("N+1 suspected, same statement executed 3 times (budget 2)")
+                .endsWith("select i.node_id, i.interest from node_interests i where i.node_id=?");
+    }
+
+    @Test
+    void distinctStatementsAreNotRepeats() {
+        QueryBudget budget = new QueryBudget(100, 100, 1, true);
+
+        budget.onStatement("select * from nodes where id=?");
+        budget.onStatement("select * from node_relations where node1_id=?");
+        budget.onStatement("select * from node_closure where descendant_id=?");
+
+        assertThat(budget.getViolation()).isNull();
+    }
+
+    @Test
+    void onlyTheFirstViolationIsRejected() {
+        QueryBudget budget = new QueryBudget(1, 1, 100, true);
+        budget.onStatement("select 1");
+
+        assertThatThrownBy(() -> budget.onStatement("select 2")).isInstanceOf(NodeException.class);
+        // La gestion de l'erreur peut encore accéder à la base sans lever une seconde exception
+        budget.onStatement("select 3");
+        budget.onEntity();
+        budget.onEntity();
+
+        assertThat(budget.getViolation()).isEqualTo("2 SQL statements (budget 1)");
+        assertThat(budget.getStatements()).isEqualTo(3);
+        assertThat(budget.getEntities()).isEqualTo(2);
+    }
+
+    @Test
+    void logModeRecordsTheViolationWithoutThrowing() {
+        QueryBudget budget = new QueryBudget(1, 100, 100, false);
+
+        budget.onStatement("select 1");
+        budget.onStatement("select 2");
+
+        assertThat(budget.getViolation()).isEqualTo("2 SQL statements (budget 1)");
+    }
+}
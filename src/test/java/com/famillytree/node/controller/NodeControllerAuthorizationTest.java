@@ -0,0 +1,125 @@
+package com.famillytree.node.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Lectures de parenté entre nœuds : réservées aux nœuds de l'arbre de l'utilisateur
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class NodeControllerAuthorizationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String ownerToken;
+    private String strangerToken;
+    private long parentId;
+    private long childId;
+    private long strangerNodeId;
+
+    @BeforeEach
+    void createTrees() throws Exception {
+        ownerToken = register();
+        parentId = createNode(ownerToken, "{\"firstName\":\"Jean\",\"lastName\":\"Talla\",\"birthDate\":\"1960-01-01\","
+                + "\"gender\":\"MALE\",\"baseNode\":true}");
+        childId = createNode(ownerToken, "{\"firstName\":\"Marie\",\"lastName\":\"Talla\",\"birthDate\":\"1990-01-01\","
+                + "\"gender\":\"FEMALE\",\"relatedNodeId\":" + parentId + ",\"relationType\":\"CHILD\"}");
+
+        strangerToken = register();
+        strangerNodeId = createNode(strangerToken, "{\"firstName\":\"Paul\",\"lastName\":\"Ngono\","
+                + "\"birthDate\":\"1970-01-01\",\"gender\":\"MALE\",\"baseNode\":true}");
+    }
+
+    @Test
+    void ownerReadsKinshipInTheirTree() throws Exception {
+        mockMvc.perform(get("/api/nodes/{id}/kinship/{otherId}", parentId, childId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.related").value(true))
+                .andExpect(jsonPath("$.label").value("daughter"));
+    }
+
+    @Test
+    void kinshipAcrossTreesIsForbidden() throws Exception {
+        mockMvc.perform(get("/api/nodes/{id}/kinship/{otherId}", parentId, childId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + strangerToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void kinshipFromOwnTreeDoesNotRevealAnotherTree() throws Exception {
+        mockMvc.perform(get("/api/nodes/{id}/kinship/{otherId}", strangerNodeId, childId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + strangerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.related").value(false))
+                .andExpect(jsonPath("$.path").doesNotExist());
+    }
+
+    @Test
+    void closureReadsAcrossTreesAreForbidden() throws Exception {
+        mockMvc.perform(get("/api/nodes/{id}/descendants", parentId).param("maxDepth", "5")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + strangerToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/nodes/{id}/ancestor-of/{descendantId}", parentId, childId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + strangerToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/nodes/{id}/common-ancestors/{otherId}", strangerNodeId, childId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + strangerToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void ownerReadsDescendantsInTheirTree() throws Exception {
+        mockMvc.perform(get("/api/nodes/{id}/descendants", parentId).param("maxDepth", "5")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].node.id").value(childId))
+                .andExpect(jsonPath("$[0].depth").value(1));
+    }
+
+    private String register() throws Exception {
+        String username = "access-" + UUID.randomUUID();
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                                + "\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return read(result).get("accessToken").asText();
+    }
+
+    private long createNode(String token, String json) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/nodes")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        return read(result).get("id").asLong();
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.famillytree.node.controller;
+
+import com.famillytree.config.QueryBudget;
+import com.famillytree.config.QueryBudgetHeaderAdvice;
+import com.famillytree.config.QueryCounter;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.repository.NodeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Profil dev : budget de requêtes en mode reject et compteurs renvoyés en en-têtes
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class NodeControllerQueryBudgetTest {
+
+    // Lecture complète de l'arbre : authentification, nœud de base, graphe de la composante
+    private static final long MAX_STATEMENTS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    private String token;
+    private long baseNodeId;
+
+    @BeforeEach
+    void createTree() throws Exception {
+        String username = "budget-" + UUID.randomUUID();
+        MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                                + "\"password\":\"secret\"}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        token = read(registered).get("accessToken").asText();
+
+        baseNodeId = createNode("{\"firstName\":\"Jean\",\"lastName\":\"Talla\",\"birthDate\":\"1960-01-01\","
+                + "\"gender\":\"MALE\",\"interests\":[\"Lecture\"],\"baseNode\":true}");
+        for (int i = 0; i < 5; i++) {
+            createNode("{\"firstName\":\"Enfant" + i + "\",\"lastName\":\"Talla\",\"birthDate\":\"1990-01-0" + (i + 1)
+                    + "\",\"gender\":\"FEMALE\",\"interests\":[\"Sport\",\"Musique\"],"
+                    + "\"relatedNodeId\":" + baseNodeId + ",\"relationType\":\"CHILD\"}");
+        }
+    }
+
+    @Test
+    void familyRelationsStayWithinTheStatementBudget() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/nodes")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(read(result)).hasSize(5);
+        long statements = Long.parseLong(result.getResponse().getHeader(QueryBudgetHeaderAdvice.STATEMENTS_HEADER));
+        assertThat(statements).isBetween(1L, MAX_STATEMENTS);
+        assertThat(result.getResponse().getHeader(QueryBudgetHeaderAdvice.ENTITIES_HEADER)).isNotNull();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheTree() throws Exception {
+        long small = statementsForFamilyRelations();
+        for (int i = 0; i < 10; i++) {
+            createNode("{\"firstName\":\"Frere" + i + "\",\"lastName\":\"Talla\",\"birthDate\":\"1962-01-0" + (i % 9 + 1)
+                    + "\",\"gender\":\"MALE\",\"interests\":[\"Voyages\"],"
+                    + "\"relatedNodeId\":" + baseNodeId + ",\"relationType\":\"SIBLING\"}");
+        }
+        long large = statementsForFamilyRelations();
+
+        // Pas de chargement paresseux par nœud : le nombre de requêtes ne dépend pas de la taille de l'arbre
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void repeatedStatementIsRejectedOnTheRequestThread() {
+        queryCounter.startBudget(new QueryBudget(100, 100, 2, true));
+        try {
+            nodeRepository.findById(baseNodeId);
+            nodeRepository.findById(baseNodeId);
+
+            assertThatThrownBy(() -> nodeRepository.findById(baseNodeId))
+                    .isInstanceOf(NodeException.class);
+        } finally {
+            queryCounter.endBudget();
+        }
+    }
+
+    // Requêtes de GET /api/nodes avec une fenêtre, qui contourne le cache des relations
+    private long statementsForFamilyRelations() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/nodes")
+                        .param("generationsDown", "10")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getHeader(QueryBudgetHeaderAdvice.STATEMENTS_HEADER));
+    }
+
+    private long createNode(String json) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/nodes")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn();
+        return read(result).get("id").asLong();
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,103 @@
+package com.famillytree.node.gedcom;
+
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.Node;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GedcomMapperTest {
+
+    @Test
+    void mapsAnIndividualToANode() throws IOException {
+        Node node = GedcomMapper.toNode(individuals().get("I1"), 7L);
+
+        assertThat(node.getFirstName()).isEqualTo("Jean");
+        assertThat(node.getLastName()).isEqualTo("Talla");
+        assertThat(node.getGender()).isEqualTo(Gender.MALE);
+        assertThat(node.getBirthDate()).isEqualTo(LocalDate.of(1950, 3, 12));
+        assertThat(node.getAddress()).isEqualTo("12 rue des Palmiers\nDouala");
+        assertThat(node.getPhone()).isEqualTo("+237600000000");
+        assertThat(node.getInterests()).containsExactly("Lecture", "Football");
+        assertThat(node.getUserId()).isEqualTo(7L);
+        assertThat(node.isBaseNode()).isFalse();
+    }
+
+    @Test
+    void prefersGivnAndSurnOverTheNameValue() throws IOException {
+        Node node = GedcomMapper.toNode(individuals().get("I2"), 7L);
+
+        assertThat(node.getFirstName()).isEqualTo("Marie Claire");
+        assertThat(node.getLastName()).isEqualTo("Talla Ngono");
+        assertThat(node.getGender()).isEqualTo(Gender.FEMALE);
+        assertThat(node.getBirthDate()).isEqualTo(LocalDate.of(1952, 1, 1));
+        assertThat(node.getInterests()).isNull();
+    }
+
+    @Test
+    void readsGregorianDatesAndTitles() throws IOException {
+        Node node = GedcomMapper.toNode(individuals().get("I3"), 7L);
+
+        assertThat(node.getBirthDate()).isEqualTo(LocalDate.of(1980, 1, 1));
+        assertThat(node.getTitle()).isEqualTo("Dr");
+    }
+
+    @Test
+    void skipsIndividualsWithAnUnknownSex() throws IOException {
+        assertThat(GedcomMapper.toNode(individuals().get("I4"), 7L)).isNull();
+    }
+
+    @Test
+    void parsesPartialApproximateAndRangeDates() {
+        assertThat(GedcomMapper.toDate("1900")).isEqualTo(LocalDate.of(1900, 1, 1));
+        assertThat(GedcomMapper.toDate("JUN 1900")).isEqualTo(LocalDate.of(1900, 6, 1));
+        assertThat(GedcomMapper.toDate("abt 5 jun 1900")).isEqualTo(LocalDate.of(1900, 6, 5));
+        assertThat(GedcomMapper.toDate("BET 1900 AND 1910")).isEqualTo(LocalDate.of(1900, 1, 1));
+        assertThat(GedcomMapper.toDate("FROM 1 FEB 1750/51 TO 1760")).isEqualTo(LocalDate.of(1750, 2, 1));
+        assertThat(GedcomMapper.toDate("INT 1900 (environ)")).isEqualTo(LocalDate.of(1900, 1, 1));
+    }
+
+    @Test
+    void rejectsUnsupportedDates() {
+        assertThat(GedcomMapper.toDate(null)).isNull();
+        assertThat(GedcomMapper.toDate(" ")).isNull();
+        assertThat(GedcomMapper.toDate("@#DJULIAN@ 1 JAN 1700")).isNull();
+        assertThat(GedcomMapper.toDate("31 FEB 1900")).isNull();
+        assertThat(GedcomMapper.toDate("1 XYZ 1900")).isNull();
+        assertThat(GedcomMapper.toDate("demain")).isNull();
+    }
+
+    @Test
+    void readsPointers() {
+        assertThat(GedcomMapper.pointer(" @I12@ ")).isEqualTo("I12");
+        assertThat(GedcomMapper.pointer("@@")).isNull();
+        assertThat(GedcomMapper.pointer("I12")).isNull();
+        assertThat(GedcomMapper.pointer(null)).isNull();
+    }
+
+    @Test
+    void readsGenders() {
+        assertThat(GedcomMapper.toGender(" m ")).isEqualTo(Gender.MALE);
+        assertThat(GedcomMapper.toGender("F")).isEqualTo(Gender.FEMALE);
+        assertThat(GedcomMapper.toGender("U")).isNull();
+        assertThat(GedcomMapper.toGender(null)).isNull();
+    }
+
+    private Map<String, GedcomRecord> individuals() throws IOException {
+        Map<String, GedcomRecord> individuals = new HashMap<>();
+        try (InputStream input = getClass().getResourceAsStream("/gedcom/sample.ged");
+             GedcomReader reader = new GedcomReader(input)) {
+            GedcomRecord record;
+            while ((record = reader.next("INDI")) != null) {
+                individuals.put(record.getXref(), record);
+            }
+        }
+        return individuals;
+    }
+}
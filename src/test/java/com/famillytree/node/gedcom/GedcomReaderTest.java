@@ -0,0 +1,116 @@
+package com.famillytree.node.gedcom;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GedcomReaderTest {
+
+    @Test
+    void stripsTheByteOrderMarkFromTheFirstLine() throws IOException {
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            GedcomRecord header = reader.next();
+
+            assertThat(header.getLevel()).isZero();
+            assertThat(header.getTag()).isEqualTo("HEAD");
+            assertThat(header.value("GEDC", "VERS")).isEqualTo("5.5.1");
+        }
+    }
+
+    @Test
+    void readsTopLevelRecordsWithTheirXrefs() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            GedcomRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record.getTag() + ":" + record.getXref());
+            }
+        }
+
+        assertThat(records).containsExactly("HEAD:null", "INDI:I1", "INDI:I2", "NOTE:N1", "INDI:I3", "INDI:I4",
+                "FAM:F1", "TRLR:null");
+    }
+
+    @Test
+    void nestsSubLinesUnderTheirParent() throws IOException {
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            GedcomRecord individual = reader.next("INDI");
+
+            assertThat(individual.value("BIRT", "DATE")).isEqualTo("12 MAR 1950");
+            assertThat(individual.value("BIRT", "PLAC")).isEqualTo("Douala");
+            assertThat(individual.value("FAMS")).isEqualTo("@F1@");
+            assertThat(individual.children("_INTEREST")).extracting(GedcomRecord::getValue)
+                    .containsExactly("Lecture", " Football ");
+        }
+    }
+
+    @Test
+    void joinsConcAndContContinuations() throws IOException {
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            GedcomRecord individual = reader.next("INDI");
+
+            assertThat(individual.value("NOTE")).isEqualTo("Une note tres longue sur deux lignes\net une seconde ligne");
+            // Continuation d'une sous-ligne de niveau 2
+            assertThat(individual.value("RESI", "ADDR")).isEqualTo("12 rue des Palmiers\nDouala");
+            assertThat(individual.child("NOTE").getChildren()).isEmpty();
+        }
+    }
+
+    @Test
+    void skipsRecordsWithOtherTags() throws IOException {
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            assertThat(reader.next("FAM").getXref()).isEqualTo("F1");
+            assertThat(reader.next("INDI")).isNull();
+        }
+    }
+
+    @Test
+    void resumesAfterTheRecordsAlreadyProcessed() throws IOException {
+        // Reprise d'un import : les deux premiers individus ont déjà été écrits
+        try (GedcomReader reader = new GedcomReader(sample())) {
+            for (int skipped = 0; skipped < 2; skipped++) {
+                assertThat(reader.next("INDI")).isNotNull();
+            }
+
+            assertThat(reader.next("INDI").getXref()).isEqualTo("I3");
+            assertThat(reader.next("INDI").getXref()).isEqualTo("I4");
+            assertThat(reader.next("INDI")).isNull();
+        }
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        GedcomReader reader = new GedcomReader(text("0 HEAD\nNOT A GEDCOM LINE\n"));
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("(2)");
+    }
+
+    @Test
+    void ignoresBlankLinesAndLeadingWhitespace() throws IOException {
+        try (GedcomReader reader = new GedcomReader(text("\n0 @I1@ INDI\n\n  1 SEX F\n"))) {
+            GedcomRecord individual = reader.next();
+
+            assertThat(individual.getXref()).isEqualTo("I1");
+            assertThat(individual.value("SEX")).isEqualTo("F");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    private InputStream sample() {
+        return getClass().getResourceAsStream("/gedcom/sample.ged");
+    }
+
+    private static InputStream text(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,232 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.event.FamilyTreeEvent;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.model.NodeRelation.RelationType;
+import com.famillytree.node.repository.NodeRelationRepository;
+import com.famillytree.node.repository.NodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FamilyGraphRegistryTest {
+
+    private static final long USER_ID = 42L;
+
+    private NodeRepository nodeRepository;
+    private NodeRelationRepository nodeRelationRepository;
+    private FamilyGraphRegistry registry;
+
+    @BeforeEach
+    void createRegistry() {
+        nodeRepository = mock(NodeRepository.class);
+        nodeRelationRepository = mock(NodeRelationRepository.class);
+        // Chargement en base : nœuds demandés, sans relation sauf stub explicite
+        when(nodeRepository.findAllWithInterestsByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> Node.builder().id(id).userId(USER_ID).build()).toList();
+        });
+        when(nodeRelationRepository.findComponentRelations(anyLong())).thenReturn(List.of());
+        registry = new FamilyGraphRegistry(nodeRepository, nodeRelationRepository);
+        ReflectionTestUtils.setField(registry, "maxResidentNodes", 500_000);
+    }
+
+    @Test
+    void loadsAComponentOnceForAllItsNodes() {
+        component(1, 2, 3);
+
+        FamilyGraph graph = registry.getGraph(1L);
+
+        assertThat(graph.size()).isEqualTo(3);
+        assertThat(registry.getGraph(2L)).isSameAs(graph);
+        assertThat(registry.getGraph(3L)).isSameAs(graph);
+        verify(nodeRelationRepository, times(1)).findComponentRelations(anyLong());
+    }
+
+    @Test
+    void createdNodesAreResidentWithoutLoading() {
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeCreated(node(1)));
+
+        assertThat(registry.getGraph(1L).size()).isEqualTo(1);
+        verifyNoInteractions(nodeRepository, nodeRelationRepository);
+    }
+
+    @Test
+    void relationMergesTheSmallerComponentIntoTheLargerOne() {
+        for (long id = 1; id <= 5; id++) {
+            registry.onFamilyTreeEvent(FamilyTreeEvent.nodeCreated(node(id)));
+        }
+        registry.onFamilyTreeEvent(relation(3, 4, RelationType.CHILD));
+        registry.onFamilyTreeEvent(relation(3, 5, RelationType.SPOUSE));
+        FamilyGraph larger = registry.getGraph(3L);
+
+        registry.onFamilyTreeEvent(relation(1, 3, RelationType.CHILD));
+
+        assertThat(registry.getGraph(1L)).isSameAs(larger);
+        assertThat(larger.size()).isEqualTo(4);
+        assertThat(larger.getDescendantRelations(1L)).hasSize(2);
+        assertThat(registry.getGraph(2L).size()).isEqualTo(1);
+        verifyNoInteractions(nodeRepository, nodeRelationRepository);
+    }
+
+    @Test
+    void relationWithinAComponentIsAddedInPlace() {
+        component(1, 2);
+        FamilyGraph graph = registry.getGraph(1L);
+
+        registry.onFamilyTreeEvent(relation(1, 2, RelationType.SPOUSE));
+
+        assertThat(registry.getGraph(2L)).isSameAs(graph);
+        assertThat(graph.getFamilyRelations(1L, new FamilyWindow(0, 0, EnumSet.of(FamilyWindow.Kind.SPOUSES))))
+                .extracting(NodeRelationDTO::getRelationType).containsExactly(RelationType.SPOUSE);
+    }
+
+    @Test
+    void relationToANonResidentNodeEvictsTheResidentComponent() {
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeCreated(node(1)));
+        FamilyGraph graph = registry.getGraph(1L);
+
+        registry.onFamilyTreeEvent(relation(1, 99, RelationType.CHILD));
+
+        // La composante est rechargée depuis la base
+        assertThat(registry.getGraph(1L)).isNotSameAs(graph);
+        verify(nodeRelationRepository).findComponentRelations(1L);
+    }
+
+    @Test
+    void mergedNodeEvictsItsComponent() {
+        component(1, 2);
+        FamilyGraph graph = registry.getGraph(1L);
+
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeMerged(node(1), 2L));
+
+        assertThat(registry.getGraph(1L)).isNotSameAs(graph);
+        verify(nodeRelationRepository, times(2)).findComponentRelations(1L);
+    }
+
+    @Test
+    void updatedNodeIsReplacedInPlace() {
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeCreated(node(1)));
+        NodeDTO updated = node(1);
+        updated.setFirstName("Renamed");
+
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeUpdated(updated));
+
+        assertThat(registry.getGraph(1L).getNodes()).extracting(NodeDTO::getFirstName).containsExactly("Renamed");
+    }
+
+    @Test
+    void importEvictsTheLinkedComponents() {
+        component(1, 2);
+        FamilyGraph graph = registry.getGraph(1L);
+
+        registry.onFamilyTreeEvent(FamilyTreeEvent.treeImported(USER_ID, List.of(2L, 100L, 101L)));
+
+        assertThat(registry.getGraph(1L)).isNotSameAs(graph);
+    }
+
+    @Test
+    void trimsTheLeastRecentlyUsedComponents() {
+        ReflectionTestUtils.setField(registry, "maxResidentNodes", 4);
+        component(1, 2);
+        component(3);
+        component(4, 5);
+
+        registry.getGraph(1L);
+        registry.getGraph(3L);
+        // Le graphe de 1 redevient le plus récemment utilisé : celui de 3 sera évincé en premier
+        registry.getGraph(1L);
+        registry.getGraph(4L);
+
+        registry.getGraph(2L);
+        registry.getGraph(5L);
+        verify(nodeRelationRepository, times(1)).findComponentRelations(1L);
+        verify(nodeRelationRepository, times(1)).findComponentRelations(4L);
+        verify(nodeRelationRepository, never()).findComponentRelations(2L);
+
+        registry.getGraph(3L);
+        verify(nodeRelationRepository, times(2)).findComponentRelations(3L);
+    }
+
+    @Test
+    void keepsAComponentLargerThanTheLimit() {
+        ReflectionTestUtils.setField(registry, "maxResidentNodes", 1);
+        component(1, 2, 3);
+
+        FamilyGraph graph = registry.getGraph(1L);
+
+        assertThat(registry.getGraph(3L)).isSameAs(graph);
+        verify(nodeRelationRepository, times(1)).findComponentRelations(anyLong());
+    }
+
+    @Test
+    void readsOwnersFromResidentGraphsThenFromTheDatabase() {
+        registry.onFamilyTreeEvent(FamilyTreeEvent.nodeCreated(node(1)));
+        when(nodeRepository.findComponentOwnerIds(List.of(7L))).thenReturn(List.of(43L));
+
+        Set<Long> ownerIds = registry.findOwnerIds(List.of(1L, 7L));
+
+        assertThat(ownerIds).containsExactlyInAnyOrder(USER_ID, 43L);
+        verify(nodeRepository).findComponentOwnerIds(List.of(7L));
+        verify(nodeRelationRepository, never()).findComponentRelations(anyLong());
+    }
+
+    // Composante en base : une chaîne de relations CHILD entre les nœuds donnés
+    private void component(long... ids) {
+        List<NodeRelationRepository.RelationRow> rows = new ArrayList<>();
+        for (int i = 1; i < ids.length; i++) {
+            rows.add(new Row(ids[i - 1], ids[i], RelationType.CHILD.name()));
+        }
+        for (long id : ids) {
+            when(nodeRelationRepository.findComponentRelations(id)).thenReturn(rows);
+        }
+    }
+
+    private static FamilyTreeEvent relation(long node1Id, long node2Id, RelationType relationType) {
+        return FamilyTreeEvent.relationAdded(NodeRelationDTO.builder()
+                .node1(node(node1Id))
+                .node2(node(node2Id))
+                .relationType(relationType)
+                .build());
+    }
+
+    private static NodeDTO node(long id) {
+        return NodeDTO.builder().id(id).firstName("Node" + id).userId(USER_ID).build();
+    }
+
+    private record Row(Long node1Id, Long node2Id, String relation) implements NodeRelationRepository.RelationRow {
+
+        @Override
+        public Long getNode1Id() {
+            return node1Id;
+        }
+
+        @Override
+        public Long getNode2Id() {
+            return node2Id;
+        }
+
+        @Override
+        public String getRelation() {
+            return relation;
+        }
+    }
+}
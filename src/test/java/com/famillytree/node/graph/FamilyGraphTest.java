@@ -0,0 +1,217 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.dto.NodeRelationDTO;
+import com.famillytree.node.graph.FamilyWindow.Kind;
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.NodeRelation.RelationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.famillytree.node.graph.KinshipPath.Step.CHILD;
+import static com.famillytree.node.graph.KinshipPath.Step.PARENT;
+import static com.famillytree.node.graph.KinshipPath.Step.SPOUSE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FamilyGraphTest {
+
+    // Arbre de test, vu depuis SELF :
+    //   GREAT_GRANDFATHER -> GRANDFATHER -> FATHER (époux de MOTHER) -> SELF (époux de WIFE) -> SON -> GRANDSON
+    //                                    -> UNCLE -> COUSIN -> COUSIN_SON
+    //   MOTHER -> SELF ; STRANGER n'est relié à personne
+    // Dans les relations SPOUSE, FATHER et WIFE sont node1 : les deux sens d'adjacence sont parcourus
+    private static final long GREAT_GRANDFATHER = 1;
+    private static final long GRANDFATHER = 2;
+    private static final long FATHER = 3;
+    private static final long UNCLE = 4;
+    private static final long SELF = 5;
+    private static final long COUSIN = 6;
+    private static final long COUSIN_SON = 7;
+    private static final long SON = 8;
+    private static final long GRANDSON = 9;
+    private static final long WIFE = 10;
+    private static final long MOTHER = 11;
+    private static final long STRANGER = 12;
+
+    private FamilyGraph graph;
+
+    @BeforeEach
+    void buildGraph() {
+        // Capacité initiale volontairement faible : les tableaux d'adjacence doivent s'agrandir
+        graph = new FamilyGraph(2);
+        for (long id = GREAT_GRANDFATHER; id <= STRANGER; id++) {
+            graph.putNode(node(id, id == WIFE || id == MOTHER ? Gender.FEMALE : Gender.MALE));
+        }
+        child(GREAT_GRANDFATHER, GRANDFATHER);
+        child(GRANDFATHER, FATHER);
+        child(GRANDFATHER, UNCLE);
+        child(FATHER, SELF);
+        child(MOTHER, SELF);
+        child(UNCLE, COUSIN);
+        child(COUSIN, COUSIN_SON);
+        child(SELF, SON);
+        child(SON, GRANDSON);
+        graph.addRelation(FATHER, MOTHER, RelationType.SPOUSE);
+        graph.addRelation(WIFE, SELF, RelationType.SPOUSE);
+    }
+
+    @Test
+    void indexesNodesAndOwners() {
+        assertThat(graph.size()).isEqualTo(12);
+        assertThat(graph.contains(SELF)).isTrue();
+        assertThat(graph.contains(99)).isFalse();
+        assertThat(graph.getNodeIds()).hasSize(12).startsWith(GREAT_GRANDFATHER, GRANDFATHER);
+        assertThat(graph.getOwnerIds()).containsExactly(42L);
+    }
+
+    @Test
+    void putNodeReplacesAnExistingNode() {
+        graph.putNode(NodeDTO.builder().id(SELF).firstName("Renamed").userId(43L).build());
+
+        assertThat(graph.size()).isEqualTo(12);
+        assertThat(graph.getNodes()).filteredOn(node -> node.getId() == SELF)
+                .extracting(NodeDTO::getFirstName).containsExactly("Renamed");
+        assertThat(graph.getOwnerIds()).containsExactlyInAnyOrder(42L, 43L);
+        // Les relations du nœud sont conservées
+        assertThat(names(graph.getDescendantRelations(SELF))).contains("5>8:CHILD");
+    }
+
+    @Test
+    void ignoresRelationsToAbsentNodesAndDuplicates() {
+        assertThat(graph.addRelation(SELF, 99, RelationType.CHILD)).isFalse();
+        assertThat(graph.addRelation(SELF, SON, RelationType.CHILD)).isTrue();
+
+        assertThat(names(graph.getDescendantRelations(SELF))).containsExactlyInAnyOrder("5>8:CHILD", "8>9:CHILD");
+    }
+
+    @Test
+    void walksTheWholeLineage() {
+        assertThat(names(graph.getAncestorRelations(SELF)))
+                .containsExactlyInAnyOrder("1>2:CHILD", "2>3:CHILD", "3>5:CHILD", "11>5:CHILD");
+        assertThat(names(graph.getDescendantRelations(SELF))).containsExactlyInAnyOrder("5>8:CHILD", "8>9:CHILD");
+        assertThat(names(graph.getUncleAndAuntRelations(SELF))).containsExactly("3>4:SIBLING");
+        assertThat(names(graph.getCousinRelations(SELF))).containsExactlyInAnyOrder("4>6:CHILD", "6>7:CHILD");
+    }
+
+    @Test
+    void unboundedWindowReturnsEveryKind() {
+        assertThat(names(graph.getFamilyRelations(SELF))).containsExactlyInAnyOrder(
+                "1>2:CHILD", "2>3:CHILD", "3>5:CHILD", "11>5:CHILD",
+                "5>8:CHILD", "8>9:CHILD",
+                "3>4:SIBLING", "4>6:CHILD", "6>7:CHILD",
+                "10>5:SPOUSE");
+    }
+
+    @Test
+    void windowStopsAtTheRequestedGenerations() {
+        Set<String> relations = names(graph.getFamilyRelations(SELF, new FamilyWindow(1, 0, EnumSet.allOf(Kind.class))));
+
+        // Parents, oncle et cousins de la génération du nœud, mais ni grands-parents, ni enfants, ni petit-cousin
+        assertThat(relations).containsExactlyInAnyOrder(
+                "3>5:CHILD", "11>5:CHILD", "3>4:SIBLING", "4>6:CHILD", "10>5:SPOUSE");
+    }
+
+    @Test
+    void cousinsFollowGenerationsDown() {
+        Set<String> relations = names(graph.getFamilyRelations(SELF, new FamilyWindow(1, 1, EnumSet.of(Kind.COUSINS))));
+
+        // Cousins seuls : la relation SIBLING vers l'oncle n'est pas retournée
+        assertThat(relations).containsExactlyInAnyOrder("4>6:CHILD", "6>7:CHILD");
+    }
+
+    @Test
+    void windowWithoutGenerationsUpHasNoUnclesOrCousins() {
+        Set<String> relations = names(graph.getFamilyRelations(SELF,
+                new FamilyWindow(0, Integer.MAX_VALUE, EnumSet.of(Kind.UNCLES_AUNTS, Kind.COUSINS))));
+
+        assertThat(relations).isEmpty();
+    }
+
+    @Test
+    void windowOnlyWalksTheRequestedKinds() {
+        assertThat(names(graph.getFamilyRelations(SELF, new FamilyWindow(2, 2, EnumSet.of(Kind.ANCESTORS)))))
+                .containsExactlyInAnyOrder("2>3:CHILD", "3>5:CHILD", "11>5:CHILD");
+        assertThat(names(graph.getFamilyRelations(FATHER, new FamilyWindow(0, 0, EnumSet.of(Kind.SPOUSES)))))
+                .containsExactly("3>11:SPOUSE");
+    }
+
+    @Test
+    void measuresGenerationDepth() {
+        assertThat(graph.getGenerationDepth(SELF)).isEqualTo(6);
+        assertThat(graph.getGenerationDepth(GREAT_GRANDFATHER)).isEqualTo(6);
+        assertThat(graph.getGenerationDepth(STRANGER)).isEqualTo(1);
+    }
+
+    @Test
+    void findsTheShortestKinshipPath() {
+        KinshipPath path = graph.findKinshipPath(SELF, COUSIN, 10);
+
+        assertThat(path.getSteps()).containsExactly(PARENT, PARENT, CHILD, CHILD);
+        assertThat(path.getNodes()).extracting(NodeDTO::getId).containsExactly(SELF, FATHER, GRANDFATHER, UNCLE, COUSIN);
+        assertThat(Kinship.of(path).getLabel()).isEqualTo("first cousin");
+    }
+
+    @Test
+    void kinshipPathCrossesMarriagesInBothDirections() {
+        KinshipPath path = graph.findKinshipPath(WIFE, MOTHER, 10);
+
+        assertThat(path.getSteps()).containsExactly(SPOUSE, PARENT);
+        assertThat(Kinship.of(path).getLabel()).isEqualTo("mother-in-law");
+        assertThat(Kinship.of(graph.findKinshipPath(SON, UNCLE, 10)).getLabel()).isEqualTo("grand-uncle");
+        assertThat(Kinship.of(graph.findKinshipPath(COUSIN_SON, SELF, 10)).getLabel()).isEqualTo("first cousin once removed");
+    }
+
+    @Test
+    void kinshipPathIsLimitedByMaxDepth() {
+        assertThat(graph.findKinshipPath(SELF, COUSIN_SON, 4)).isNull();
+        assertThat(graph.findKinshipPath(SELF, COUSIN_SON, 5).getSteps()).hasSize(5);
+        assertThat(graph.findKinshipPath(SELF, STRANGER, 20)).isNull();
+        assertThat(graph.findKinshipPath(SELF, SELF, 0).getSteps()).isEmpty();
+    }
+
+    @Test
+    void rejectsNodesOutsideTheGraph() {
+        assertThatThrownBy(() -> graph.getFamilyRelations(99))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> graph.findKinshipPath(SELF, 99, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void absorbCopiesNodesAndRelations() {
+        FamilyGraph other = new FamilyGraph(2);
+        other.putNode(node(20, Gender.FEMALE));
+        other.putNode(node(21, Gender.MALE));
+        other.addRelation(20, 21, RelationType.CHILD);
+        other.addRelation(20, 21, RelationType.SPOUSE);
+
+        graph.absorb(other);
+        graph.addRelation(GRANDSON, 20, RelationType.SPOUSE);
+
+        assertThat(graph.size()).isEqualTo(14);
+        assertThat(names(graph.getDescendantRelations(20))).containsExactly("20>21:CHILD");
+        assertThat(names(graph.getFamilyRelations(21, new FamilyWindow(0, 0, EnumSet.of(Kind.SPOUSES)))))
+                .containsExactly("20>21:SPOUSE");
+        assertThat(graph.findKinshipPath(SELF, 21, 10).getSteps()).containsExactly(CHILD, CHILD, SPOUSE, CHILD);
+    }
+
+    private void child(long parentId, long childId) {
+        assertThat(graph.addRelation(parentId, childId, RelationType.CHILD)).isTrue();
+    }
+
+    private static NodeDTO node(long id, Gender gender) {
+        return NodeDTO.builder().id(id).firstName("Node" + id).gender(gender).userId(42L).build();
+    }
+
+    // "node1>node2:TYPE", pour des assertions lisibles
+    private static Set<String> names(Set<NodeRelationDTO> relations) {
+        return relations.stream()
+                .map(relation -> relation.getNode1().getId() + ">" + relation.getNode2().getId() + ":" + relation.getRelationType())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,143 @@
+package com.famillytree.node.graph;
+
+import com.famillytree.node.dto.NodeDTO;
+import com.famillytree.node.graph.KinshipPath.Step;
+import com.famillytree.node.model.Gender;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.famillytree.node.graph.KinshipPath.Step.CHILD;
+import static com.famillytree.node.graph.KinshipPath.Step.PARENT;
+import static com.famillytree.node.graph.KinshipPath.Step.SPOUSE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KinshipTest {
+
+    @Test
+    void emptyPathIsSelf() {
+        Kinship kinship = Kinship.of(path(Gender.MALE));
+
+        assertThat(kinship.getLabel()).isEqualTo("self");
+        assertThat(kinship.getGenerationsUp()).isZero();
+        assertThat(kinship.getGenerationsDown()).isZero();
+    }
+
+    @Test
+    void namesSpousesByGender() {
+        assertThat(label(Gender.MALE, SPOUSE)).isEqualTo("husband");
+        assertThat(label(Gender.FEMALE, SPOUSE)).isEqualTo("wife");
+        assertThat(label(null, SPOUSE)).isEqualTo("spouse");
+        assertThat(Kinship.of(path(Gender.FEMALE, SPOUSE)).isByMarriage()).isTrue();
+    }
+
+    @Test
+    void namesDirectLines() {
+        assertThat(label(Gender.MALE, PARENT)).isEqualTo("father");
+        assertThat(label(Gender.FEMALE, PARENT, PARENT)).isEqualTo("grandmother");
+        assertThat(label(null, PARENT, PARENT, PARENT, PARENT)).isEqualTo("great-great-grandparent");
+        assertThat(label(Gender.MALE, CHILD)).isEqualTo("son");
+        assertThat(label(Gender.FEMALE, CHILD, CHILD)).isEqualTo("granddaughter");
+        assertThat(label(Gender.MALE, CHILD, CHILD, CHILD)).isEqualTo("great-grandson");
+    }
+
+    @Test
+    void namesSiblingsNephewsAndUncles() {
+        assertThat(label(Gender.FEMALE, PARENT, CHILD)).isEqualTo("sister");
+        assertThat(label(null, PARENT, CHILD)).isEqualTo("sibling");
+        assertThat(label(Gender.MALE, PARENT, CHILD, CHILD)).isEqualTo("nephew");
+        assertThat(label(Gender.FEMALE, PARENT, CHILD, CHILD, CHILD)).isEqualTo("grand-niece");
+        assertThat(label(Gender.MALE, PARENT, CHILD, CHILD, CHILD, CHILD)).isEqualTo("great-grand-nephew");
+        assertThat(label(Gender.FEMALE, PARENT, PARENT, CHILD)).isEqualTo("aunt");
+        assertThat(label(Gender.MALE, PARENT, PARENT, PARENT, CHILD)).isEqualTo("grand-uncle");
+    }
+
+    @Test
+    void countsCousinDegreeAndRemoval() {
+        Kinship firstCousin = Kinship.of(path(Gender.MALE, steps(2, 2)));
+        assertThat(firstCousin.getLabel()).isEqualTo("first cousin");
+        assertThat(firstCousin.getCousinDegree()).isEqualTo(1);
+        assertThat(firstCousin.getRemoved()).isZero();
+
+        Kinship removed = Kinship.of(path(Gender.FEMALE, steps(2, 3)));
+        assertThat(removed.getLabel()).isEqualTo("first cousin once removed");
+        assertThat(removed.getCousinDegree()).isEqualTo(1);
+        assertThat(removed.getRemoved()).isEqualTo(1);
+
+        assertThat(label(null, steps(4, 3))).isEqualTo("second cousin once removed");
+        assertThat(label(null, steps(3, 5))).isEqualTo("second cousin twice removed");
+        assertThat(label(null, steps(6, 3))).isEqualTo("second cousin 3 times removed");
+        assertThat(label(null, steps(11, 11))).isEqualTo("tenth cousin");
+    }
+
+    @Test
+    void spellsDistantCousinOrdinalsWithTheirSuffix() {
+        assertThat(label(null, steps(12, 12))).isEqualTo("11th cousin");
+        assertThat(label(null, steps(13, 13))).isEqualTo("12th cousin");
+        assertThat(label(null, steps(14, 14))).isEqualTo("13th cousin");
+        assertThat(label(null, steps(22, 22))).isEqualTo("21st cousin");
+        assertThat(label(null, steps(23, 23))).isEqualTo("22nd cousin");
+        assertThat(label(null, steps(24, 24))).isEqualTo("23rd cousin");
+        assertThat(label(null, steps(25, 25))).isEqualTo("24th cousin");
+        assertThat(label(null, steps(112, 112))).isEqualTo("111th cousin");
+    }
+
+    @Test
+    void namesStepRelatives() {
+        // Enfant du conjoint
+        assertThat(label(Gender.MALE, SPOUSE, CHILD)).isEqualTo("stepson");
+        assertThat(label(Gender.FEMALE, SPOUSE, CHILD, CHILD)).isEqualTo("step-granddaughter");
+        // Conjoint d'un parent
+        assertThat(label(Gender.FEMALE, PARENT, SPOUSE)).isEqualTo("stepmother");
+        assertThat(label(Gender.MALE, PARENT, PARENT, SPOUSE)).isEqualTo("step-grandfather");
+        assertThat(label(Gender.FEMALE, PARENT, PARENT, PARENT, SPOUSE)).isEqualTo("step-great-grandmother");
+
+        Kinship stepson = Kinship.of(path(Gender.MALE, SPOUSE, CHILD));
+        assertThat(stepson.isByMarriage()).isTrue();
+        assertThat(stepson.getGenerationsDown()).isEqualTo(1);
+    }
+
+    @Test
+    void namesInLaws() {
+        // Parent du conjoint, conjoint d'un enfant, frère du conjoint, conjointe d'un frère
+        assertThat(label(Gender.MALE, SPOUSE, PARENT)).isEqualTo("father-in-law");
+        assertThat(label(Gender.FEMALE, CHILD, SPOUSE)).isEqualTo("daughter-in-law");
+        assertThat(label(Gender.MALE, SPOUSE, PARENT, CHILD)).isEqualTo("brother-in-law");
+        assertThat(label(Gender.FEMALE, PARENT, CHILD, SPOUSE)).isEqualTo("sister-in-law");
+        assertThat(label(null, SPOUSE, PARENT, PARENT, CHILD, CHILD)).isEqualTo("first cousin-in-law");
+    }
+
+    @Test
+    void zigzagsAndDoubleMarriagesHaveNoUsualName() {
+        Kinship zigzag = Kinship.of(path(Gender.MALE, CHILD, PARENT));
+        assertThat(zigzag.getLabel()).isEqualTo("relative by marriage");
+        assertThat(zigzag.getGenerationsUp()).isNull();
+        assertThat(zigzag.isByMarriage()).isTrue();
+
+        assertThat(label(Gender.FEMALE, SPOUSE, PARENT, SPOUSE)).isEqualTo("relative by marriage");
+        assertThat(label(Gender.MALE, SPOUSE, SPOUSE)).isEqualTo("relative by marriage");
+        assertThat(label(Gender.MALE, PARENT, SPOUSE, CHILD)).isEqualTo("relative by marriage");
+    }
+
+    private static String label(Gender gender, Step... steps) {
+        return Kinship.of(path(gender, steps)).getLabel();
+    }
+
+    // Chemin de parenté ; seul le genre du nœud d'arrivée compte pour le libellé
+    private static KinshipPath path(Gender gender, Step... steps) {
+        List<NodeDTO> nodes = new ArrayList<>();
+        for (int i = 0; i <= steps.length; i++) {
+            nodes.add(NodeDTO.builder().id((long) i).gender(i == steps.length ? gender : null).build());
+        }
+        return new KinshipPath(nodes, List.of(steps));
+    }
+
+    // Remontée de "up" générations puis descente de "down" générations
+    private static Step[] steps(int up, int down) {
+        List<Step> steps = new ArrayList<>(Collections.nCopies(up, PARENT));
+        steps.addAll(Collections.nCopies(down, CHILD));
+        return steps.toArray(new Step[0]);
+    }
+}
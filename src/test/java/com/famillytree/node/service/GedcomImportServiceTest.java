@@ -0,0 +1,98 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.model.GedcomImport;
+import com.famillytree.node.repository.GedcomImportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GedcomImportServiceTest {
+
+    private static final long USER_ID = 42L;
+    private static final long IMPORT_ID = 7L;
+
+    @TempDir
+    private Path storageDir;
+
+    private GedcomImportRepository gedcomImportRepository;
+    private GedcomImportWriter gedcomImportWriter;
+    private TaskExecutor taskExecutor;
+    private GedcomImportService gedcomImportService;
+
+    @BeforeEach
+    void createService() {
+        gedcomImportRepository = mock(GedcomImportRepository.class);
+        gedcomImportWriter = mock(GedcomImportWriter.class);
+        taskExecutor = mock(TaskExecutor.class);
+        NodeService nodeService = mock(NodeService.class);
+        when(nodeService.getCurrentUserId()).thenReturn(USER_ID);
+        gedcomImportService = new GedcomImportService(gedcomImportRepository, gedcomImportWriter, nodeService, taskExecutor);
+    }
+
+    @Test
+    void resumeFailsFastWhenTheFileIsNotOnThisInstance() {
+        failedImport(storageDir.resolve("missing.ged"));
+
+        assertThatThrownBy(() -> gedcomImportService.resumeImport(IMPORT_ID))
+                .isInstanceOf(NodeException.class)
+                .extracting("status").isEqualTo(HttpStatus.CONFLICT);
+        // Ni bail pris, ni import marqué FAILED
+        verifyNoInteractions(gedcomImportWriter, taskExecutor);
+    }
+
+    @Test
+    void resumeSubmitsTheClaimedImport() throws IOException {
+        failedImport(Files.createFile(storageDir.resolve("import.ged")));
+        when(gedcomImportWriter.claim(any(), anyString())).thenReturn(true);
+
+        gedcomImportService.resumeImport(IMPORT_ID);
+
+        verify(taskExecutor).execute(any());
+    }
+
+    @Test
+    void rejectedTaskReleasesTheClaim() throws IOException {
+        failedImport(Files.createFile(storageDir.resolve("import.ged")));
+        when(gedcomImportWriter.claim(any(), anyString())).thenReturn(true);
+        doThrow(new TaskRejectedException("queue full")).when(taskExecutor).execute(any());
+
+        assertThatThrownBy(() -> gedcomImportService.resumeImport(IMPORT_ID))
+                .isInstanceOf(NodeException.class)
+                .extracting("status").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Le bail pris par claim est rendu par fail, avec le même propriétaire
+        ArgumentCaptor<String> leaseOwner = ArgumentCaptor.forClass(String.class);
+        verify(gedcomImportWriter).claim(eq(IMPORT_ID), leaseOwner.capture());
+        verify(gedcomImportWriter).fail(eq(IMPORT_ID), eq(leaseOwner.getValue()), contains("queue full"));
+    }
+
+    private void failedImport(Path storagePath) {
+        when(gedcomImportRepository.findById(IMPORT_ID)).thenReturn(Optional.of(GedcomImport.builder()
+                .id(IMPORT_ID)
+                .userId(USER_ID)
+                .storagePath(storagePath.toString())
+                .status(GedcomImport.Status.FAILED)
+                .build()));
+    }
+}
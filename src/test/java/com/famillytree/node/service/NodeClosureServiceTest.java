@@ -0,0 +1,222 @@
+package com.famillytree.node.service;
+
+import com.famillytree.node.dto.CommonAncestorDTO;
+import com.famillytree.node.dto.RelativeDTO;
+import com.famillytree.node.exception.NodeException;
+import com.famillytree.node.model.Gender;
+import com.famillytree.node.model.Node;
+import com.famillytree.node.repository.NodeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Requêtes SQL de la table de fermeture sur PostgreSQL ; chaque test est annulé en fin d'exécution
+@SpringBootTest
+@ActiveProfiles("dev")
+@Transactional
+class NodeClosureServiceTest {
+
+    private static final long USER_ID = -1L;
+    private static final long OTHER_USER_ID = -2L;
+
+    @Autowired
+    private NodeClosureService nodeClosureService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Test
+    void addsEveryAncestorOfTheParentToEveryDescendantOfTheChild() {
+        long grandParent = node();
+        long parent = node();
+        long child = node();
+        long grandChild = node();
+
+        // Deux branches reliées par leur milieu : grand-parent -> parent, puis enfant -> petit-enfant, puis parent -> enfant
+        nodeClosureService.addChildRelation(grandParent, parent);
+        nodeClosureService.addChildRelation(child, grandChild);
+        nodeClosureService.addChildRelation(parent, child);
+
+        assertThat(depth(grandParent, parent)).isEqualTo(1);
+        assertThat(depth(grandParent, child)).isEqualTo(2);
+        assertThat(depth(grandParent, grandChild)).isEqualTo(3);
+        assertThat(depth(parent, grandChild)).isEqualTo(2);
+        assertThat(depth(grandChild, grandParent)).isNull();
+    }
+
+    @Test
+    void shorterPathReplacesALongerOne() {
+        long a = node();
+        long b = node();
+        long c = node();
+
+        nodeClosureService.addChildRelation(a, b);
+        nodeClosureService.addChildRelation(b, c);
+        assertThat(depth(a, c)).isEqualTo(2);
+
+        nodeClosureService.addChildRelation(a, c);
+
+        assertThat(depth(a, c)).isEqualTo(1);
+    }
+
+    @Test
+    void longerPathKeepsTheShortestDepth() {
+        long a = node();
+        long b = node();
+        long c = node();
+        long d = node();
+
+        nodeClosureService.addChildRelation(a, d);
+        nodeClosureService.addChildRelations(List.of(new long[]{a, b}, new long[]{b, c}, new long[]{c, d}));
+
+        assertThat(depth(a, d)).isEqualTo(1);
+        assertThat(depth(b, d)).isEqualTo(2);
+    }
+
+    @Test
+    void batchedRelationsSeeThePreviousOnes() {
+        long a = node();
+        long b = node();
+        long c = node();
+        long d = node();
+
+        nodeClosureService.addChildRelations(List.of(new long[]{a, b}, new long[]{b, c}, new long[]{c, d}));
+
+        assertThat(depth(a, d)).isEqualTo(3);
+        assertThat(nodeClosureService.getDescendants(USER_ID, a, 2))
+                .extracting(relative -> relative.getNode().getId(), RelativeDTO::getDepth)
+                .containsExactly(tuple(b, 1), tuple(c, 2));
+    }
+
+    @Test
+    void siblingsShareBothParentsOrderedById() {
+        long father = node();
+        long mother = node();
+        long grandFather = node();
+        long son = node();
+        long daughter = node();
+
+        nodeClosureService.addChildRelations(List.of(
+                new long[]{grandFather, father},
+                new long[]{father, son}, new long[]{mother, son},
+                new long[]{father, daughter}, new long[]{mother, daughter}));
+
+        List<CommonAncestorDTO> common = nodeClosureService.getLowestCommonAncestors(USER_ID, daughter, son);
+
+        // Le grand-père est aussi commun mais plus éloigné
+        assertThat(common).extracting(ancestor -> ancestor.getNode().getId()).containsExactly(father, mother);
+        assertThat(common).allSatisfy(ancestor -> {
+            assertThat(ancestor.getDepthFromFirst()).isEqualTo(1);
+            assertThat(ancestor.getDepthFromSecond()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void cousinsMeetAtTheirGrandParent() {
+        long grandParent = node();
+        long uncle = node();
+        long father = node();
+        long cousin = node();
+        long child = node();
+        long grandChild = node();
+
+        nodeClosureService.addChildRelations(List.of(
+                new long[]{grandParent, uncle}, new long[]{grandParent, father},
+                new long[]{uncle, cousin}, new long[]{father, child}, new long[]{child, grandChild}));
+
+        List<CommonAncestorDTO> common = nodeClosureService.getLowestCommonAncestors(USER_ID, grandChild, cousin);
+
+        assertThat(common).hasSize(1);
+        assertThat(common.get(0).getNode().getId()).isEqualTo(grandParent);
+        assertThat(common.get(0).getDepthFromFirst()).isEqualTo(3);
+        assertThat(common.get(0).getDepthFromSecond()).isEqualTo(2);
+    }
+
+    @Test
+    void anAncestorIsItsOwnLowestCommonAncestor() {
+        long parent = node();
+        long child = node();
+        long stranger = node();
+        nodeClosureService.addChildRelation(parent, child);
+
+        List<CommonAncestorDTO> common = nodeClosureService.getLowestCommonAncestors(USER_ID, parent, child);
+
+        assertThat(common).hasSize(1);
+        assertThat(common.get(0).getNode().getId()).isEqualTo(parent);
+        assertThat(common.get(0).getDepthFromFirst()).isZero();
+        assertThat(common.get(0).getDepthFromSecond()).isEqualTo(1);
+        assertThat(nodeClosureService.getLowestCommonAncestors(USER_ID, child, stranger)).isEmpty();
+    }
+
+    @Test
+    void removingANodeDropsItsRows() {
+        long a = node();
+        long b = node();
+        long c = node();
+        nodeClosureService.addChildRelations(List.of(new long[]{a, b}, new long[]{b, c}));
+
+        nodeClosureService.removeNode(b);
+
+        assertThat(depth(a, b)).isNull();
+        assertThat(depth(b, c)).isNull();
+        // Les chemins passant par le nœud restent : la fermeture ne se recalcule pas
+        assertThat(depth(a, c)).isEqualTo(2);
+    }
+
+    @Test
+    void readsAreLimitedToTheCallersTree() {
+        long parent = node();
+        long child = node();
+        nodeClosureService.addChildRelation(parent, child);
+
+        assertThatThrownBy(() -> nodeClosureService.getDescendants(OTHER_USER_ID, parent, 2))
+                .isInstanceOf(NodeException.class)
+                .extracting("status").isEqualTo(HttpStatus.FORBIDDEN);
+        assertThatThrownBy(() -> nodeClosureService.getAncestry(OTHER_USER_ID, parent, child))
+                .extracting("status").isEqualTo(HttpStatus.FORBIDDEN);
+        assertThatThrownBy(() -> nodeClosureService.getLowestCommonAncestors(OTHER_USER_ID, parent, child))
+                .extracting("status").isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(nodeClosureService.getAncestry(USER_ID, parent, child).isAncestor()).isTrue();
+    }
+
+    @Test
+    void unknownNodesAreNotFoundBeforeOwnershipIsChecked() {
+        long parent = node();
+
+        assertThatThrownBy(() -> nodeClosureService.getAncestry(OTHER_USER_ID, parent, Long.MAX_VALUE))
+                .extracting("status").isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private long node() {
+        return nodeRepository.saveAndFlush(Node.builder()
+                .firstName("Test")
+                .lastName("Closure")
+                .birthDate(LocalDate.of(1950, 1, 1))
+                .gender(Gender.MALE)
+                .userId(USER_ID)
+                .baseNode(false)
+                .build()).getId();
+    }
+
+    // Lecture JDBC : les lignes mises à jour par les upserts ne sont pas celles du contexte de persistance
+    private Integer depth(long ancestorId, long descendantId) {
+        List<Integer> depths = jdbcTemplate.queryForList(
+                "SELECT depth FROM node_closure WHERE ancestor_id = ? AND descendant_id = ?",
+                Integer.class, ancestorId, descendantId);
+        return depths.isEmpty() ? null : depths.get(0);
+    }
+}